@@ -233,7 +233,52 @@ public class Attribute<Owner, Type> {
         return getter.getValue(target);
     }
 
+    /**
+     * Describes the value of this attribute, within the time limit of {@link ConfigurationContext#getExportBudget()}.
+     */
     public CNode describe(Owner instance, ConfigurationContext context) throws ConfiguratorException {
+        return context.getExportBudget()
+                .describeAttribute(
+                        instance,
+                        instance.getClass().getName() + "#" + name,
+                        () -> describeWithoutBudget(instance, context));
+    }
+
+    /**
+     * Describes the value of this attribute unless it equals the one of a reference instance. Values are read and
+     * compared within the same time limit as {@link #describe}, as getters may be the slow part.
+     *
+     * @return the description, or {@code null} if the values are equal or there is nothing to describe
+     */
+    @CheckForNull
+    public CNode describeIfDifferent(Owner instance, Owner reference, ConfigurationContext context)
+            throws ConfiguratorException {
+        return context.getExportBudget()
+                .describeAttribute(
+                        instance,
+                        instance.getClass().getName() + "#" + name,
+                        () -> equals(instance, reference) ? null : describeWithoutBudget(instance, context));
+    }
+
+    /**
+     * Describes the value of this attribute unless it equals the given default value, like
+     * {@link #describeIfDifferent}.
+     *
+     * @return the description, or {@code null} if the value is the default one or there is nothing to describe
+     */
+    @CheckForNull
+    public CNode describeIfNotDefault(Owner instance, @CheckForNull Object defaultValue, ConfigurationContext context)
+            throws ConfiguratorException {
+        return context.getExportBudget()
+                .describeAttribute(
+                        instance,
+                        instance.getClass().getName() + "#" + name,
+                        () -> equalValues(getValue(instance), defaultValue)
+                                ? null
+                                : describeWithoutBudget(instance, context));
+    }
+
+    private CNode describeWithoutBudget(Owner instance, ConfigurationContext context) throws ConfiguratorException {
         final Configurator c = context.lookup(type);
         if (c == null) {
             return new Scalar("FAILED TO EXPORT\n" + instance.getClass().getName() + "#" + name
@@ -248,10 +293,18 @@ public class Attribute<Owner, Type> {
             // In Export we sensitive only those values which do not get rendered as secrets
             boolean shouldBeMasked = isSecret(instance);
             if (multiple) {
-                Sequence seq = new Sequence();
                 if (o.getClass().isArray()) {
                     o = Arrays.asList((Object[]) o);
                 }
+                final int pageSize = context.getExportPageSize();
+                if (!isJsonSchema && pageSize > 0 && o instanceof Collection && ((Collection) o).size() > pageSize) {
+                    // described while being exported, one page of values at a time
+                    return new PagedSequence(
+                            (Collection) o,
+                            pageSize,
+                            values -> describePage(c, context, instance, values, shouldBeMasked));
+                }
+                Sequence seq = new Sequence();
                 if (o instanceof Iterable) {
                     for (Object value : (Iterable) o) {
                         seq.add(_describe(c, context, value, shouldBeMasked));
@@ -311,6 +364,44 @@ public class Attribute<Owner, Type> {
         }
     }
 
+    /**
+     * Describes a page of values of a paged sequence, which is described outside of {@link #describe}, so within its
+     * own time limit.
+     */
+    private List<CNode> describePage(
+            Configurator c, ConfigurationContext context, Owner instance, List<?> values, boolean shouldBeMasked) {
+        final String attribute = instance.getClass().getName() + "#" + name;
+        CNode page;
+        try {
+            page = context.getExportBudget().describePage(instance, attribute, () -> {
+                final Sequence seq = new Sequence();
+                for (Object value : values) {
+                    seq.add(describeValue(c, context, instance, value, shouldBeMasked));
+                }
+                return seq;
+            });
+        } catch (ConfiguratorException e) {
+            LOGGER.log(Level.WARNING, "Failed to export", e);
+            page = new Scalar("FAILED TO EXPORT\n" + attribute + ": " + printThrowable(e));
+        }
+        // the whole page is replaced by the marker of a timeout
+        return page instanceof Sequence ? (Sequence) page : Collections.singletonList(page);
+    }
+
+    /**
+     * Describes a single value of a paged sequence.
+     */
+    private CNode describeValue(
+            Configurator c, ConfigurationContext context, Owner instance, Object value, boolean shouldBeMasked) {
+        try {
+            return _describe(c, context, value, shouldBeMasked);
+        } catch (Exception | /* Jenkins.getDescriptorOrDie */ AssertionError e) {
+            LOGGER.log(Level.WARNING, "Failed to export", e);
+            return new Scalar(
+                    "FAILED TO EXPORT\n" + instance.getClass().getName() + "#" + name + ": " + printThrowable(e));
+        }
+    }
+
     /**
      * Describes a node.
      * @param c Configurator
@@ -336,8 +427,14 @@ public class Attribute<Owner, Type> {
     }
 
     public boolean equals(Owner o1, Owner o2) throws Exception {
-        final Object v1 = getValue(o1);
-        final Object v2 = getValue(o2);
+        return equalValues(getValue(o1), getValue(o2));
+    }
+
+    /**
+     * Compares two values of this attribute, as {@link #equals(Object, Object)} does for the values of two owners.
+     * @since TODO
+     */
+    public boolean equalValues(Object v1, Object v2) {
         if (v1 == null && v2 == null) {
             return true;
         }
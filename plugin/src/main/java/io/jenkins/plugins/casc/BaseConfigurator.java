@@ -400,10 +400,7 @@ public abstract class BaseConfigurator<T> implements Configurator<T> {
 
         Mapping mapping = new Mapping();
         for (Attribute attribute : getAttributes()) {
-            if (attribute.equals(instance, reference)) {
-                continue;
-            }
-            mapping.put(attribute.getName(), attribute.describe(instance, context));
+            mapping.putIfNotNull(attribute.getName(), attribute.describeIfDifferent(instance, reference, context));
         }
         return mapping;
     }
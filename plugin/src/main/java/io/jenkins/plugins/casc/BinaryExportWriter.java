@@ -0,0 +1,111 @@
+package io.jenkins.plugins.casc;
+
+import static io.jenkins.plugins.casc.yaml.BinaryFormat.KEY;
+import static io.jenkins.plugins.casc.yaml.BinaryFormat.KEY_REFERENCE;
+import static io.jenkins.plugins.casc.yaml.BinaryFormat.MAPPING_END;
+import static io.jenkins.plugins.casc.yaml.BinaryFormat.MAPPING_START;
+import static io.jenkins.plugins.casc.yaml.BinaryFormat.SCALAR;
+import static io.jenkins.plugins.casc.yaml.BinaryFormat.SEQUENCE_END;
+import static io.jenkins.plugins.casc.yaml.BinaryFormat.SEQUENCE_START;
+import static io.jenkins.plugins.casc.yaml.BinaryFormat.TAG_BOOLEAN;
+import static io.jenkins.plugins.casc.yaml.BinaryFormat.TAG_NUMBER;
+import static io.jenkins.plugins.casc.yaml.BinaryFormat.TAG_RAW;
+import static io.jenkins.plugins.casc.yaml.BinaryFormat.TAG_STRING;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.jenkins.plugins.casc.model.Scalar;
+import io.jenkins.plugins.casc.yaml.BinaryFormat;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes the exported configuration in the {@link BinaryFormat}, which configuration sources can be read from.
+ */
+final class BinaryExportWriter extends ExportWriter {
+
+    private final DataOutputStream out;
+
+    /**
+     * Index of the keys already written.
+     */
+    private final Map<String, Integer> keys = new HashMap<>();
+
+    BinaryExportWriter(@NonNull OutputStream out) {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+    }
+
+    @Override
+    void start() throws IOException {
+        BinaryFormat.writeHeader(out);
+        out.write(MAPPING_START);
+    }
+
+    @Override
+    void end() throws IOException {
+        out.write(MAPPING_END);
+        out.flush();
+    }
+
+    @Override
+    void mappingStart(@CheckForNull String anchor) throws IOException {
+        out.write(MAPPING_START);
+    }
+
+    @Override
+    void mappingEnd() throws IOException {
+        out.write(MAPPING_END);
+    }
+
+    @Override
+    void sequenceStart(@CheckForNull String anchor) throws IOException {
+        out.write(SEQUENCE_START);
+    }
+
+    @Override
+    void sequenceEnd() throws IOException {
+        out.write(SEQUENCE_END);
+    }
+
+    @Override
+    void key(@NonNull String name) throws IOException {
+        final Integer index = keys.get(name);
+        if (index != null) {
+            out.write(KEY_REFERENCE);
+            BinaryFormat.writeVarInt(out, index);
+        } else {
+            keys.put(name, keys.size());
+            out.write(KEY);
+            BinaryFormat.writeString(out, name);
+        }
+    }
+
+    @Override
+    void scalar(@NonNull Scalar scalar) throws IOException {
+        out.write(SCALAR);
+        out.write(tagOf(scalar.getFormat()) | (scalar.isRaw() ? TAG_RAW : 0));
+        BinaryFormat.writeString(out, scalar.getValue());
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private static int tagOf(Scalar.Format format) {
+        switch (format) {
+            case NUMBER:
+                return TAG_NUMBER;
+            case BOOLEAN:
+                return TAG_BOOLEAN;
+            case STRING:
+            case MULTILINESTRING:
+            default:
+                return TAG_STRING;
+        }
+    }
+}
@@ -1,11 +1,8 @@
 package io.jenkins.plugins.casc;
 
-import static io.jenkins.plugins.casc.SchemaGeneration.writeJSONSchema;
 import static java.lang.String.format;
 import static java.util.stream.Collectors.toList;
 import static org.yaml.snakeyaml.DumperOptions.FlowStyle.BLOCK;
-import static org.yaml.snakeyaml.DumperOptions.ScalarStyle.DOUBLE_QUOTED;
-import static org.yaml.snakeyaml.DumperOptions.ScalarStyle.LITERAL;
 import static org.yaml.snakeyaml.DumperOptions.ScalarStyle.PLAIN;
 
 import edu.umd.cs.findbugs.annotations.CheckForNull;
@@ -21,23 +18,22 @@ import hudson.remoting.Which;
 import hudson.security.ACL;
 import hudson.security.ACLContext;
 import hudson.security.Permission;
+import hudson.util.DaemonThreadFactory;
 import hudson.util.FormValidation;
+import hudson.util.NamingThreadFactory;
 import io.jenkins.plugins.casc.impl.DefaultConfiguratorRegistry;
 import io.jenkins.plugins.casc.model.CNode;
 import io.jenkins.plugins.casc.model.Mapping;
 import io.jenkins.plugins.casc.model.Scalar;
-import io.jenkins.plugins.casc.model.Scalar.Format;
 import io.jenkins.plugins.casc.model.Sequence;
 import io.jenkins.plugins.casc.model.Source;
 import io.jenkins.plugins.casc.yaml.YamlSource;
 import io.jenkins.plugins.casc.yaml.YamlUtils;
 import io.jenkins.plugins.prism.PrismConfiguration;
 import jakarta.inject.Inject;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -49,11 +45,13 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
@@ -64,6 +62,10 @@ import java.util.Optional;
 import java.util.Scanner;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.IntStream;
@@ -86,6 +88,7 @@ import org.kohsuke.stapler.StaplerResponse;
 import org.kohsuke.stapler.interceptor.RequirePOST;
 import org.kohsuke.stapler.lang.Klass;
 import org.kohsuke.stapler.verb.POST;
+import org.springframework.security.core.Authentication;
 import org.yaml.snakeyaml.DumperOptions;
 import org.yaml.snakeyaml.emitter.Emitter;
 import org.yaml.snakeyaml.error.YAMLException;
@@ -165,6 +168,11 @@ public class ConfigurationAsCode extends ManagementLink {
         return sources;
     }
 
+    @Restricted(NoExternalUse.class)
+    public SecretResolutionMetrics getSecretResolutionMetrics() {
+        return SecretResolutionMetrics.get();
+    }
+
     @RequirePOST
     @Restricted(NoExternalUse.class)
     public void doReload(StaplerRequest request, StaplerResponse response) throws Exception {
@@ -468,6 +476,38 @@ public class ConfigurationAsCode extends ManagementLink {
         warnings.write(res.getWriter());
     }
 
+    /**
+     * Lists the differences between the configuration sources and the live configuration, as JSON
+     * @throws Exception
+     */
+    @RequirePOST
+    @Restricted(NoExternalUse.class)
+    public void doDrift(StaplerRequest req, StaplerResponse res) throws Exception {
+        if (!Jenkins.get().hasPermission(Jenkins.ADMINISTER)) {
+            res.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+
+        final JSONArray drifts = new JSONArray();
+        detectDrift().stream().map(Drift::toJSON).forEach(drifts::add);
+        res.setContentType("application/json; charset=utf-8");
+        drifts.write(res.getWriter());
+    }
+
+    /**
+     * Compares the live configuration with the configuration sources, describing only what they set.
+     */
+    @Restricted(NoExternalUse.class)
+    public List<Drift> detectDrift() throws Exception {
+        final List<YamlSource> sources = getStandardConfigSources();
+        if (sources.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final ConfigurationContext context = new ConfigurationContext(registry);
+        SecretSource.all().forEach(SecretSource::init);
+        return Drift.detect(YamlUtils.loadFrom(sources, context), context);
+    }
+
     @RequirePOST
     @Restricted(NoExternalUse.class)
     public void doApply(StaplerRequest req, StaplerResponse res) throws Exception {
@@ -480,7 +520,8 @@ public class ConfigurationAsCode extends ManagementLink {
     }
 
     /**
-     * Export live jenkins instance configuration as Yaml
+     * Export live jenkins instance configuration as Yaml, or only the part of it selected by the {@code path}
+     * parameter, in the {@link ExportFormat} named by the {@code format} parameter
      * @throws Exception
      */
     @RequirePOST
@@ -491,13 +532,45 @@ public class ConfigurationAsCode extends ManagementLink {
             return;
         }
 
-        res.setContentType("application/x-yaml; charset=utf-8");
-        res.addHeader("Content-Disposition", "attachment; filename=jenkins.yaml");
-        export(res.getOutputStream());
+        final String path = Util.fixEmptyAndTrim(req.getParameter("path"));
+        final ExportFormat format;
+        try {
+            format = ExportFormat.of(Util.fixEmptyAndTrim(req.getParameter("format")));
+        } catch (ConfiguratorException e) {
+            res.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+
+        final boolean full = path == null && format == ExportFormat.YAML;
+        final ExportCache.Export cached = full ? ExportCache.cached() : null;
+        if (cached != null) {
+            res.setHeader("ETag", cached.getETag());
+            if (cached.matches(req.getHeader("If-None-Match"))) {
+                res.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+        res.setContentType(format.getContentType());
+        res.addHeader("Content-Disposition", "attachment; filename=" + format.getFileName());
+        if (cached != null) {
+            cached.writeTo(res.getOutputStream());
+            return;
+        }
+
+        // written as it gets rendered, the entity tag is only known once done: it comes with the next request
+        try {
+            ExportCache.stream(out -> export(out, path, format), full, res.getOutputStream());
+        } catch (ConfiguratorException e) {
+            if (res.isCommitted()) {
+                throw e;
+            }
+            res.reset();
+            res.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+        }
     }
 
     /**
-     * Export JSONSchema to URL
+     * Export JSONSchema to URL, regenerated only when plugins bring new configurable components
      * @throws Exception
      */
     @Restricted(NoExternalUse.class)
@@ -507,8 +580,14 @@ public class ConfigurationAsCode extends ManagementLink {
             return;
         }
 
+        final ExportCache.Export schema = SchemaCache.get();
+        res.setHeader("ETag", schema.getETag());
+        if (schema.matches(req.getHeader("If-None-Match"))) {
+            res.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
         res.setContentType("application/json; charset=utf-8");
-        res.getWriter().print(writeJSONSchema());
+        schema.writeTo(res.getOutputStream());
     }
 
     @RequirePOST
@@ -519,10 +598,13 @@ public class ConfigurationAsCode extends ManagementLink {
             return;
         }
 
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        export(out);
-
-        req.setAttribute("export", out.toString(StandardCharsets.UTF_8.name()));
+        final ExportCache.Export export = getCachedExport();
+        res.setHeader("ETag", export.getETag());
+        if (export.matches(req.getHeader("If-None-Match"))) {
+            res.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        req.setAttribute("export", export.toString());
         req.getView(this, "viewExport.jelly").forward(req, res);
     }
 
@@ -541,36 +623,207 @@ public class ConfigurationAsCode extends ManagementLink {
         req.getView(this, "reference.jelly").forward(req, res);
     }
 
+    /**
+     * Export of the current configuration, reused until the configuration changes.
+     */
     @Restricted(NoExternalUse.class)
-    public void export(OutputStream out) throws Exception {
+    public ExportCache.Export getCachedExport() throws Exception {
+        return ExportCache.get(this::export);
+    }
+
+    /**
+     * Writes the export of the current configuration, from memory while it is kept, as it gets rendered otherwise.
+     */
+    @Restricted(NoExternalUse.class)
+    public void writeCachedExport(OutputStream out) throws Exception {
+        final ExportCache.Export cached = ExportCache.cached();
+        if (cached != null) {
+            cached.writeTo(out);
+        } else {
+            ExportCache.stream(this::export, true, out);
+        }
+        out.flush();
+    }
 
-        final List<NodeTuple> tuples = new ArrayList<>();
+    @Restricted(NoExternalUse.class)
+    public void export(OutputStream out) throws Exception {
+        export(out, ExportFormat.YAML);
+    }
 
+    private void export(OutputStream out, ExportFormat format) throws Exception {
         final ConfigurationContext context = new ConfigurationContext(registry);
-        for (RootElementConfigurator root : RootElementConfigurator.all()) {
-            final CNode config = root.describe(root.getTargetComponent(context), context);
-            final Node valueNode = toYaml(config);
-            if (valueNode == null) {
-                continue;
+        final List<RootElementConfigurator> roots = RootElementConfigurator.all();
+        final int threads = Math.min(context.getExportThreads(), roots.size());
+        final ExecutorService executor = threads > 1
+                ? Executors.newFixedThreadPool(
+                        threads, new NamingThreadFactory(new DaemonThreadFactory(), "CasC export"))
+                : null;
+        try (ExportWriter writer = format.writer(out, context)) {
+            final Authentication auth = Jenkins.getAuthentication2();
+            // root elements described ahead of the writer, no more than there are threads
+            final Deque<Future<CNode>> described = new ArrayDeque<>(threads);
+            int submitted = 0;
+            if (executor != null) {
+                for (; submitted < threads; submitted++) {
+                    described.add(submit(executor, auth, roots.get(submitted), context));
+                }
+            }
+
+            writer.start();
+            // written in registration order whatever the completion order, one root element at a time
+            for (final RootElementConfigurator root : roots) {
+                if (executor == null) {
+                    writer.writeRoot(root.getName(), describe(root, context));
+                    continue;
+                }
+                writer.writeRoot(root.getName(), await(described.removeFirst()));
+                if (submitted < roots.size()) {
+                    described.add(submit(executor, auth, roots.get(submitted++), context));
+                }
             }
-            tuples.add(new NodeTuple(new ScalarNode(Tag.STR, root.getName(), null, null, PLAIN), valueNode));
+            writer.end();
+        } catch (IOException e) {
+            throw new YAMLException(e);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            context.getExportBudget().report();
         }
+    }
 
-        MappingNode root = new MappingNode(Tag.MAP, tuples, BLOCK);
-        try (Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
-            serializeYamlNode(root, writer);
+    private static Future<CNode> submit(
+            ExecutorService executor, Authentication auth, RootElementConfigurator root, ConfigurationContext context) {
+        return executor.submit(() -> {
+            try (ACLContext acl = ACL.as2(auth)) {
+                return describe(root, context);
+            }
+        });
+    }
+
+    /**
+     * Exports a single root element, or a single attribute below it, such as {@code jenkins.nodes} or
+     * {@code unclassified.location}. Only the selected part of the configuration is described.
+     *
+     * @param path dot separated root element and attribute names, {@code null} to export everything
+     * @throws ConfiguratorException if the path doesn't match any exported attribute
+     */
+    @Restricted(NoExternalUse.class)
+    public void export(OutputStream out, @CheckForNull String path) throws Exception {
+        export(out, path, ExportFormat.YAML);
+    }
+
+    /**
+     * Exports the configuration, or only the part selected by {@code path}, in the given format.
+     *
+     * @param path dot separated root element and attribute names, {@code null} to export everything
+     * @throws ConfiguratorException if the path doesn't match any exported attribute
+     */
+    @Restricted(NoExternalUse.class)
+    public void export(OutputStream out, @CheckForNull String path, @NonNull ExportFormat format) throws Exception {
+        if (StringUtils.isBlank(path)) {
+            export(out, format);
+            return;
+        }
+
+        final ConfigurationContext context = new ConfigurationContext(registry);
+        final String[] segments = path.trim().split("\\.");
+        final RootElementConfigurator root = context.lookupRootElement(segments[0]);
+        if (root == null) {
+            throw new ConfiguratorException("No root element named '" + segments[0] + "' for export path " + path);
+        }
+
+        // canonical names of the attributes selected below the root element
+        final List<String> names = new ArrayList<>();
+        CNode node = segments.length == 1 ? describe(root, context) : describe(root, segments, names, context);
+        for (int i = names.size() - 1; i >= 0 && node != null; i--) {
+            final Mapping mapping = new Mapping();
+            mapping.put(names.get(i), node);
+            node = mapping;
+        }
+
+        try (ExportWriter writer = format.writer(out, context)) {
+            writer.start();
+            writer.writeRoot(root.getName(), node);
+            writer.end();
         } catch (IOException e) {
             throw new YAMLException(e);
+        } finally {
+            context.getExportBudget().report();
+        }
+    }
+
+    /**
+     * Walks down the attributes named by the path, describing only the last one.
+     */
+    @CheckForNull
+    private static CNode describe(
+            RootElementConfigurator root, String[] segments, List<String> names, ConfigurationContext context)
+            throws Exception {
+        final String path = String.join(".", segments);
+        Object owner = root.getTargetComponent(context);
+        Configurator configurator = root;
+        for (int i = 1; ; i++) {
+            final Attribute attribute = findAttribute(configurator, segments[i]);
+            if (attribute == null) {
+                throw new ConfiguratorException(
+                        configurator, "No attribute named '" + segments[i] + "' for export path " + path);
+            }
+            names.add(attribute.getName());
+            if (i == segments.length - 1) {
+                return attribute.describe(owner, context);
+            }
+            if (attribute.isMultiple()) {
+                throw new ConfiguratorException(
+                        configurator,
+                        "Export path " + path + " can't go below the multi-valued attribute '" + attribute.getName()
+                                + "'");
+            }
+            owner = attribute.getValue(owner);
+            if (owner == null) {
+                return null;
+            }
+            configurator = context.lookupOrFail(owner.getClass());
+        }
+    }
+
+    /**
+     * @return the attribute of {@code configurator} with this name or alias, if any
+     */
+    @CheckForNull
+    static Attribute findAttribute(Configurator configurator, String name) {
+        for (Object o : configurator.getAttributes()) {
+            final Attribute attribute = (Attribute) o;
+            if (attribute.getName().equals(name) || attribute.getAliases().contains(name)) {
+                return attribute;
+            }
+        }
+        return null;
+    }
+
+    private static CNode describe(RootElementConfigurator root, ConfigurationContext context) throws Exception {
+        return context.getExportBudget()
+                .describeRoot(root.getName(), () -> root.describe(root.getTargetComponent(context), context));
+    }
+
+    static <T> T await(Future<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
         }
     }
 
     @Restricted(NoExternalUse.class) // for testing only
     public static void serializeYamlNode(Node root, Writer writer) throws IOException {
-        DumperOptions options = new DumperOptions();
-        options.setDefaultFlowStyle(BLOCK);
-        options.setDefaultScalarStyle(PLAIN);
-        options.setSplitLines(true);
-        options.setPrettyFlow(true);
+        DumperOptions options = YamlExportWriter.options();
         Serializer serializer = new Serializer(new Emitter(writer, options), new Resolver(), options, null);
         serializer.open();
         serializer.serialize(root);
@@ -627,29 +880,12 @@ public class ConfigurationAsCode extends ManagementLink {
                     return null;
                 }
 
-                final DumperOptions.ScalarStyle style;
-                if (scalar.getFormat().equals(Format.MULTILINESTRING) && !scalar.isRaw()) {
-                    style = LITERAL;
-                } else if (scalar.isRaw()) {
-                    style = PLAIN;
-                } else {
-                    style = DOUBLE_QUOTED;
-                }
-
-                return new ScalarNode(getTag(scalar.getFormat()), value, null, null, style);
-        }
-    }
-
-    private Tag getTag(Scalar.Format format) {
-        switch (format) {
-            case NUMBER:
-                return Tag.INT;
-            case BOOLEAN:
-                return Tag.BOOL;
-            case STRING:
-            case MULTILINESTRING:
-            default:
-                return Tag.STR;
+                return new ScalarNode(
+                        YamlExportWriter.tagOf(scalar.getFormat()),
+                        value,
+                        null,
+                        null,
+                        YamlExportWriter.styleOf(scalar));
         }
     }
 
@@ -696,7 +932,9 @@ public class ConfigurationAsCode extends ManagementLink {
     private void configureWith(List<YamlSource> sources) throws ConfiguratorException {
         lastTimeLoaded = System.currentTimeMillis();
         ConfigurationContext context = new ConfigurationContext(registry);
-        configureWith(YamlUtils.loadFrom(sources, context), context);
+        final Mapping entries = YamlUtils.loadFrom(sources, context);
+        validateSchema(entries, context);
+        configureWith(entries, context);
     }
 
     @Restricted(NoExternalUse.class)
@@ -711,7 +949,18 @@ public class ConfigurationAsCode extends ManagementLink {
             return Collections.emptyMap();
         }
         ConfigurationContext context = new ConfigurationContext(registry);
-        return checkWith(YamlUtils.loadFrom(sources, context), context);
+        final Mapping entries = YamlUtils.loadFrom(sources, context);
+        validateSchema(entries, context);
+        return checkWith(entries, context);
+    }
+
+    /**
+     * Rejects sources not matching the schema, if enabled, before secrets are resolved and any configurator runs.
+     */
+    private static void validateSchema(Mapping entries, ConfigurationContext context) throws ConfiguratorException {
+        if (context.isSchemaValidation()) {
+            SchemaCache.validator().validate(entries, context);
+        }
     }
 
     /**
@@ -814,24 +1063,33 @@ public class ConfigurationAsCode extends ManagementLink {
         // Initialize secret sources
         SecretSource.all().forEach(SecretSource::init);
 
-        // Check input before actually applying changes, so we don't let controller in a
-        // weird state after some ConfiguratorException has been thrown
-        final Mapping clone = entries.clone();
-        checkWith(clone, context);
-
-        final ObsoleteConfigurationMonitor monitor = ObsoleteConfigurationMonitor.get();
-        monitor.reset();
-        context.clearListeners();
-        context.addListener(monitor::record);
-        try (ACLContext acl = ACL.as2(ACL.SYSTEM2)) {
-            invokeWith(entries, (configurator, config) -> configurator.configure(config, context));
+        // Secrets revealed during the check are reused when applying, and forgotten afterwards
+        try (SecretSourceResolver.CacheScope secrets = context.getSecretSourceResolver().cacheSecrets()) {
+            // Check input before actually applying changes, so we don't let controller in a
+            // weird state after some ConfiguratorException has been thrown
+            final Mapping clone = entries.clone();
+            checkWith(clone, context);
+
+            final ObsoleteConfigurationMonitor monitor = ObsoleteConfigurationMonitor.get();
+            monitor.reset();
+            context.clearListeners();
+            context.addListener(monitor::record);
+            try (ACLContext acl = ACL.as2(ACL.SYSTEM2)) {
+                invokeWith(entries, (configurator, config) -> configurator.configure(config, context));
+            }
+        } finally {
+            // not everything applied goes through a Saveable
+            ExportCache.invalidate();
         }
     }
 
     public Map<Source, String> checkWith(Mapping entries, ConfigurationContext context) throws ConfiguratorException {
         Map<Source, String> issues = new HashMap<>();
         context.addListener((node, message) -> issues.put(node.getSource(), message));
-        invokeWith(entries, (configurator, config) -> configurator.check(config, context));
+        try (SecretSourceResolver.CacheScope secrets = context.getSecretSourceResolver().cacheSecrets()) {
+            context.getSecretSourceResolver().prefetch(entries);
+            invokeWith(entries, (configurator, config) -> configurator.check(config, context));
+        }
         return issues;
     }
 
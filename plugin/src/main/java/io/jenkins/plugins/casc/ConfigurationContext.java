@@ -8,6 +8,8 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.commons.lang.math.NumberUtils;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
 import org.kohsuke.stapler.Stapler;
 
 /**
@@ -19,6 +21,24 @@ public class ConfigurationContext implements ConfiguratorRegistry {
     public static final String CASC_YAML_MAX_ALIASES_PROPERTY = "casc.yaml.max.aliases";
     public static final String CASC_YAML_CODE_POINT_LIMIT_ENV = "CASC_YAML_CODE_POINT_LIMIT";
     public static final String CASC_YAML_CODE_POINT_LIMIT_PROPERTY = "casc.yaml.code_point_limit";
+    public static final String CASC_FILE_CACHE_MAX_SIZE_ENV = "CASC_FILE_CACHE_MAX_SIZE";
+    public static final String CASC_FILE_CACHE_MAX_SIZE_PROPERTY = "casc.file.cache.max_size";
+    public static final String CASC_EXPORT_THREADS_ENV = "CASC_EXPORT_THREADS";
+    public static final String CASC_EXPORT_THREADS_PROPERTY = "casc.export.threads";
+    public static final String CASC_EXPORT_PAGE_SIZE_ENV = "CASC_EXPORT_PAGE_SIZE";
+    public static final String CASC_EXPORT_PAGE_SIZE_PROPERTY = "casc.export.page_size";
+    public static final String CASC_EXPORT_ATTRIBUTE_TIMEOUT_ENV = "CASC_EXPORT_ATTRIBUTE_TIMEOUT";
+    public static final String CASC_EXPORT_ATTRIBUTE_TIMEOUT_PROPERTY = "casc.export.attribute_timeout";
+    public static final String CASC_EXPORT_ROOT_TIMEOUT_ENV = "CASC_EXPORT_ROOT_TIMEOUT";
+    public static final String CASC_EXPORT_ROOT_TIMEOUT_PROPERTY = "casc.export.root_timeout";
+    public static final String CASC_EXPORT_SLOW_THRESHOLD_ENV = "CASC_EXPORT_SLOW_THRESHOLD";
+    public static final String CASC_EXPORT_SLOW_THRESHOLD_PROPERTY = "casc.export.slow_threshold";
+    public static final String CASC_EXPORT_ANCHORS_ENV = "CASC_EXPORT_ANCHORS";
+    public static final String CASC_EXPORT_ANCHORS_PROPERTY = "casc.export.anchors";
+    public static final String CASC_SCHEMA_THREADS_ENV = "CASC_SCHEMA_THREADS";
+    public static final String CASC_SCHEMA_THREADS_PROPERTY = "casc.schema.threads";
+    public static final String CASC_SCHEMA_VALIDATION_ENV = "CASC_SCHEMA_VALIDATION";
+    public static final String CASC_SCHEMA_VALIDATION_PROPERTY = "casc.schema.validation";
     public static final String CASC_MERGE_STRATEGY_ENV = "CASC_MERGE_STRATEGY";
     public static final String CASC_MERGE_STRATEGY_PROPERTY = "casc.merge.strategy";
     private Deprecation deprecation = Deprecation.reject;
@@ -27,6 +47,13 @@ public class ConfigurationContext implements ConfiguratorRegistry {
     private String mergeStrategy;
     private final transient int yamlMaxAliasesForCollections;
     private final transient int yamlCodePointLimit;
+    private final transient long fileCacheMaxSize;
+    private final transient int exportThreads;
+    private final transient int exportPageSize;
+    private final transient ExportBudget exportBudget;
+    private final transient boolean exportAnchors;
+    private final transient int schemaThreads;
+    private final transient boolean schemaValidation;
 
     /**
      * the model-introspection model to be applied by configuration-as-code.
@@ -50,6 +77,23 @@ public class ConfigurationContext implements ConfiguratorRegistry {
         yamlMaxAliasesForCollections = NumberUtils.toInt(prop, 50);
         prop = getPropertyOrEnv(CASC_YAML_CODE_POINT_LIMIT_ENV, CASC_YAML_CODE_POINT_LIMIT_PROPERTY);
         yamlCodePointLimit = NumberUtils.toInt(prop, 3) * 1024 * 1024;
+        prop = getPropertyOrEnv(CASC_FILE_CACHE_MAX_SIZE_ENV, CASC_FILE_CACHE_MAX_SIZE_PROPERTY);
+        fileCacheMaxSize = NumberUtils.toLong(prop, 1024) * 1024;
+        prop = getPropertyOrEnv(CASC_EXPORT_THREADS_ENV, CASC_EXPORT_THREADS_PROPERTY);
+        exportThreads = NumberUtils.toInt(prop, 1);
+        prop = getPropertyOrEnv(CASC_EXPORT_PAGE_SIZE_ENV, CASC_EXPORT_PAGE_SIZE_PROPERTY);
+        exportPageSize = NumberUtils.toInt(prop, 500);
+        prop = getPropertyOrEnv(CASC_EXPORT_ATTRIBUTE_TIMEOUT_ENV, CASC_EXPORT_ATTRIBUTE_TIMEOUT_PROPERTY);
+        final long attributeTimeout = NumberUtils.toLong(prop, 0);
+        prop = getPropertyOrEnv(CASC_EXPORT_ROOT_TIMEOUT_ENV, CASC_EXPORT_ROOT_TIMEOUT_PROPERTY);
+        final long rootTimeout = NumberUtils.toLong(prop, 0);
+        prop = getPropertyOrEnv(CASC_EXPORT_SLOW_THRESHOLD_ENV, CASC_EXPORT_SLOW_THRESHOLD_PROPERTY);
+        exportBudget = new ExportBudget(attributeTimeout, rootTimeout, NumberUtils.toLong(prop, 1000));
+        exportAnchors = Boolean.parseBoolean(getPropertyOrEnv(CASC_EXPORT_ANCHORS_ENV, CASC_EXPORT_ANCHORS_PROPERTY));
+        prop = getPropertyOrEnv(CASC_SCHEMA_THREADS_ENV, CASC_SCHEMA_THREADS_PROPERTY);
+        schemaThreads = NumberUtils.toInt(prop, Runtime.getRuntime().availableProcessors());
+        prop = getPropertyOrEnv(CASC_SCHEMA_VALIDATION_ENV, CASC_SCHEMA_VALIDATION_PROPERTY);
+        schemaValidation = Boolean.parseBoolean(prop);
         secretSourceResolver = new SecretSourceResolver(this);
         mergeStrategy = getPropertyOrEnv(CASC_MERGE_STRATEGY_ENV, CASC_MERGE_STRATEGY_PROPERTY);
     }
@@ -120,6 +164,67 @@ public class ConfigurationContext implements ConfiguratorRegistry {
         return yamlCodePointLimit;
     }
 
+    /**
+     * @return largest file, in bytes, whose content is kept in memory by file lookups during an apply
+     * @since TODO
+     */
+    public long getFileCacheMaxSize() {
+        return fileCacheMaxSize;
+    }
+
+    /**
+     * @return number of root elements described concurrently by the export, sequential unless greater than one
+     * @since TODO
+     */
+    public int getExportThreads() {
+        return exportThreads;
+    }
+
+    /**
+     * @return number of values of a multi-valued attribute described at once by the export, when it has more values
+     *     than that; all of them are described upfront if not greater than zero
+     * @since TODO
+     */
+    public int getExportPageSize() {
+        return exportPageSize;
+    }
+
+    /**
+     * @return time limits of exports using this context, and the slow attributes recorded so far
+     * @since TODO
+     */
+    @NonNull
+    @Restricted(NoExternalUse.class)
+    public ExportBudget getExportBudget() {
+        return exportBudget;
+    }
+
+    /**
+     * @return whether the YAML export writes identical mappings and sequences once, referring to them with aliases
+     *     afterwards, within the limit of {@link #getYamlMaxAliasesForCollections()}
+     * @since TODO
+     */
+    public boolean isExportAnchors() {
+        return exportAnchors;
+    }
+
+    /**
+     * @return number of root configurators whose JSON schema is generated concurrently, sequential unless greater
+     *     than one; defaults to the number of processors
+     * @since TODO
+     */
+    public int getSchemaThreads() {
+        return schemaThreads;
+    }
+
+    /**
+     * @return whether configuration sources are checked against the schema before any configurator runs
+     * @since TODO
+     */
+    public boolean isSchemaValidation() {
+        return schemaValidation;
+    }
+
     // --- delegate methods for ConfigurationContext
 
     @Override
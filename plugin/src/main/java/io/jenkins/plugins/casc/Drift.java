@@ -0,0 +1,293 @@
+package io.jenkins.plugins.casc;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.util.Secret;
+import io.jenkins.plugins.casc.impl.configurators.HeteroDescribableConfigurator;
+import io.jenkins.plugins.casc.model.CNode;
+import io.jenkins.plugins.casc.model.Mapping;
+import io.jenkins.plugins.casc.model.Scalar;
+import io.jenkins.plugins.casc.model.Sequence;
+import io.jenkins.plugins.casc.model.Source;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import net.sf.json.JSONObject;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * A difference between the configuration sources and the live configuration.
+ * <p>
+ * Only what the sources set is compared, so that drift is detected without exporting everything. Attributes are
+ * followed down as long as the sources use them by name or alias; below that, such as under a sequence or a choice of
+ * implementations, the attribute is described and compared with the source node by node, still resolving names
+ * through the configurators. Sensitive values are compared before being masked when the sources set them directly,
+ * and reported as unverifiable when only their masked description is available.
+ */
+@Restricted(NoExternalUse.class)
+public final class Drift {
+
+    public enum Kind {
+        /** The live value differs from the one in the sources. */
+        CHANGED,
+        /** The sources set a value the live configuration doesn't export, which may be its default. */
+        MISSING,
+        /** The sources set something which isn't an attribute of the live configuration. */
+        UNKNOWN,
+        /** The live value is masked in exports, so it can't be compared with the sources. */
+        UNVERIFIABLE
+    }
+
+    /**
+     * Live value reported for sensitive attributes, as exports show them.
+     */
+    private static final String MASK = new Scalar("").sensitive(true).getValue();
+
+    private final String path;
+    private final Kind kind;
+    private final String expected;
+    private final String actual;
+    private final Source source;
+
+    private Drift(String path, Kind kind, String expected, String actual, Source source) {
+        this.path = path;
+        this.kind = kind;
+        this.expected = expected;
+        this.actual = actual;
+        this.source = source;
+    }
+
+    /**
+     * @return dot separated names, and indexes of sequence items, leading to the difference
+     */
+    public String getPath() {
+        return path;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return value in the sources, as written there, masked for sensitive values, {@code null} for mappings and
+     *     sequences
+     */
+    @CheckForNull
+    public String getExpected() {
+        return expected;
+    }
+
+    /**
+     * @return value in the live configuration, as exported, {@code null} if missing or not a scalar
+     */
+    @CheckForNull
+    public String getActual() {
+        return actual;
+    }
+
+    /**
+     * @return where the expected value comes from
+     */
+    @CheckForNull
+    public Source getSource() {
+        return source;
+    }
+
+    public JSONObject toJSON() {
+        final JSONObject json = new JSONObject()
+                .element("path", path)
+                .element("kind", kind.name())
+                .element("expected", expected)
+                .element("actual", actual);
+        if (source != null) {
+            json.element("file", source.file).element("line", source.line);
+        }
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return path + ": " + kind + (source != null ? " (" + source.file + ":" + source.line + ")" : "");
+    }
+
+    /**
+     * Compares the configuration loaded from the sources with the live configuration.
+     */
+    @NonNull
+    static List<Drift> detect(@NonNull Mapping entries, @NonNull ConfigurationContext context) throws Exception {
+        final List<Drift> drifts = new ArrayList<>();
+        try (SecretSourceResolver.CacheScope secrets = context.getSecretSourceResolver().cacheSecrets()) {
+            for (Map.Entry<String, CNode> entry : entries.entrySet()) {
+                final RootElementConfigurator root = context.lookupRootElement(entry.getKey());
+                final CNode expected = entry.getValue();
+                if (root == null) {
+                    drifts.add(new Drift(entry.getKey(), Kind.UNKNOWN, null, null, expected.getSource()));
+                } else if (expected.getType() == CNode.Type.MAPPING) {
+                    new Detector(drifts, context)
+                            .attributes(
+                                    root.getName(), root, root.getTargetComponent(context), expected.asMapping());
+                } else {
+                    new Detector(drifts, context)
+                            .nodes(
+                                    root.getName(),
+                                    expected,
+                                    root.describe(root.getTargetComponent(context), context),
+                                    root);
+                }
+            }
+        }
+        return drifts;
+    }
+
+    private static final class Detector {
+        private final List<Drift> drifts;
+        private final ConfigurationContext context;
+
+        Detector(List<Drift> drifts, ConfigurationContext context) {
+            this.drifts = drifts;
+            this.context = context;
+        }
+
+        /**
+         * Compares the attributes set by the sources, describing only those.
+         */
+        void attributes(String path, Configurator configurator, Object owner, Mapping expected) throws Exception {
+            for (Map.Entry<String, CNode> entry : expected.entrySet()) {
+                final String childPath = path + "." + entry.getKey();
+                final CNode value = entry.getValue();
+                final Attribute attribute = ConfigurationAsCode.findAttribute(configurator, entry.getKey());
+                if (attribute == null) {
+                    drifts.add(new Drift(childPath, Kind.UNKNOWN, null, null, value.getSource()));
+                    continue;
+                }
+
+                if (value.getType() == CNode.Type.SCALAR && !attribute.isMultiple() && attribute.isSecret(owner)) {
+                    sensitive(childPath, value.asScalar(), attribute, owner);
+                    continue;
+                }
+                if (value.getType() == CNode.Type.MAPPING && !attribute.isMultiple()) {
+                    final Object child = attribute.getValue(owner);
+                    final Configurator childConfigurator = child != null ? context.lookup(child.getClass()) : null;
+                    if (childConfigurator != null && hasAttributes(childConfigurator, value.asMapping())) {
+                        attributes(childPath, childConfigurator, child, value.asMapping());
+                        continue;
+                    }
+                }
+                nodes(childPath, value, attribute.describe(owner, context), context.lookup(attribute.getType()));
+            }
+        }
+
+        /**
+         * Compares a sensitive value set by the sources before it gets masked, without reporting it.
+         */
+        private void sensitive(String path, Scalar expected, Attribute attribute, Object owner) throws Exception {
+            final Object value = attribute.getValue(owner);
+            final Configurator configurator = value != null ? context.lookup(attribute.getType()) : null;
+            final CNode actual = configurator != null ? configurator.describe(value, context) : null;
+            if (actual == null) {
+                drifts.add(new Drift(path, Kind.MISSING, MASK, null, expected.getSource()));
+            } else if (actual.getType() != CNode.Type.SCALAR || !sameValue(expected, actual.asScalar())) {
+                drifts.add(new Drift(path, Kind.CHANGED, MASK, MASK, expected.getSource()));
+            }
+        }
+
+        /**
+         * Compares a source node with the live one, ignoring what the source doesn't set.
+         *
+         * @param configurator of the live node, resolving the names the source uses, if known
+         */
+        void nodes(String path, CNode expected, @CheckForNull CNode actual, @CheckForNull Configurator configurator)
+                throws Exception {
+            if (actual == null) {
+                drifts.add(new Drift(path, Kind.MISSING, valueOf(expected), null, expected.getSource()));
+                return;
+            }
+            if (actual.getType() != expected.getType()) {
+                drifts.add(new Drift(path, Kind.CHANGED, valueOf(expected), valueOf(actual), expected.getSource()));
+                return;
+            }
+            switch (expected.getType()) {
+                case MAPPING:
+                    final Mapping actualMapping = actual.asMapping();
+                    for (Map.Entry<String, CNode> entry : expected.asMapping().entrySet()) {
+                        final String key = entry.getKey();
+                        final Attribute attribute =
+                                configurator != null ? ConfigurationAsCode.findAttribute(configurator, key) : null;
+                        final String name = attribute != null ? attribute.getName() : key;
+                        nodes(path + "." + key, entry.getValue(), actualMapping.get(name), child(configurator, key));
+                    }
+                    return;
+                case SEQUENCE:
+                    final Sequence expectedItems = expected.asSequence();
+                    final Sequence actualItems = actual.asSequence();
+                    if (expectedItems.size() != actualItems.size()) {
+                        drifts.add(new Drift(
+                                path,
+                                Kind.CHANGED,
+                                expectedItems.size() + " items",
+                                actualItems.size() + " items",
+                                expected.getSource()));
+                    }
+                    for (int i = 0; i < Math.min(expectedItems.size(), actualItems.size()); i++) {
+                        nodes(path + "[" + i + "]", expectedItems.get(i), actualItems.get(i), configurator);
+                    }
+                    return;
+                case SCALAR:
+                default:
+                    final Scalar live = actual.asScalar();
+                    if (live.isMasked()) {
+                        drifts.add(new Drift(path, Kind.UNVERIFIABLE, MASK, MASK, expected.getSource()));
+                    } else if (!sameValue(expected.asScalar(), live)) {
+                        // the sources of a secret may set it as is
+                        final String value = live.isSensitiveData() ? MASK : valueOf(expected);
+                        drifts.add(new Drift(path, Kind.CHANGED, value, valueOf(actual), expected.getSource()));
+                    }
+            }
+        }
+
+        /**
+         * Compares values once variables are resolved, and secrets decrypted.
+         */
+        private boolean sameValue(Scalar expected, Scalar actual) {
+            final String resolved = context.getSecretSourceResolver().resolve(expected.getValue());
+            final String value = actual.getValue();
+            if (Objects.equals(resolved, value)) {
+                return true;
+            }
+            final Secret secret = value != null ? Secret.decrypt(value) : null;
+            return secret != null && Objects.equals(resolved, secret.getPlainText());
+        }
+
+        /**
+         * @return configurator of what the source sets under {@code key}, an attribute or the symbol of an
+         *     implementation, if known
+         */
+        @CheckForNull
+        private Configurator child(@CheckForNull Configurator configurator, String key) {
+            if (configurator instanceof HeteroDescribableConfigurator) {
+                final Class<?> implementation =
+                        ((HeteroDescribableConfigurator<?>) configurator).getImplementors().get(key);
+                return implementation != null ? context.lookup(implementation) : null;
+            }
+            final Attribute attribute =
+                    configurator != null ? ConfigurationAsCode.findAttribute(configurator, key) : null;
+            return attribute != null ? context.lookup(attribute.getType()) : null;
+        }
+
+        private static boolean hasAttributes(Configurator configurator, Mapping expected) {
+            for (String name : expected.keySet()) {
+                if (ConfigurationAsCode.findAttribute(configurator, name) == null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @CheckForNull
+        private static String valueOf(CNode node) throws ConfiguratorException {
+            return node.getType() == CNode.Type.SCALAR ? node.asScalar().getValue() : null;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package io.jenkins.plugins.casc;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import io.jenkins.plugins.casc.model.CNode;
+import io.jenkins.plugins.casc.model.Scalar;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import jenkins.model.Jenkins;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Time limits of an export, so that a single slow getter can't stall the whole export.
+ * <p>
+ * With a limit, root elements and the first level of attributes described under them, including the comparison of
+ * their values with the defaults, run in a separate thread. Values of multi-valued attributes described a page at a
+ * time while being written are limited page by page. An attribute, or root element, which takes longer than its limit
+ * is exported as a marker scalar, and the thread describing it is interrupted. Threads come from bounded pools,
+ * {@code io.jenkins.plugins.casc.ExportBudget.threads} each, 8 by default: a thread ignoring the interruption stays
+ * busy, and the attribute of that same object it describes is skipped until it is done, rather than taking one
+ * more thread. Attributes nested under a time-boxed attribute share its limit. Whatever the limits, attributes taking
+ * longer than the slow threshold are recorded with their timings.
+ */
+@Restricted(NoExternalUse.class)
+public final class ExportBudget {
+
+    private static final Logger LOGGER = Logger.getLogger(ExportBudget.class.getName());
+
+    private static final int THREADS = Integer.getInteger(ExportBudget.class.getName() + ".threads", 8);
+
+    /**
+     * Root elements wait for their attributes, so both get their own pool.
+     */
+    private static final ExecutorService ROOTS = newExecutor("CasC export budget root");
+
+    private static final ExecutorService ATTRIBUTES = newExecutor("CasC export budget");
+
+    /**
+     * What is still being described after exceeding its limit, skipped until done, with the export it started in.
+     */
+    private static final Map<Key, ExportBudget> RUNNING = new ConcurrentHashMap<>();
+
+    private static final int QUEUED = 0;
+    private static final int STARTED = 1;
+    private static final int DONE = 2;
+
+    /**
+     * Set while describing a time-boxed attribute, whose nested attributes are described in the same thread.
+     */
+    private static final ThreadLocal<Boolean> TIME_BOXED = ThreadLocal.withInitial(() -> false);
+
+    private final long attributeTimeout;
+    private final long rootTimeout;
+    private final long slowThreshold;
+    private final Queue<Timing> slow = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param attributeTimeout milliseconds an attribute can take, no limit if not greater than zero
+     * @param rootTimeout milliseconds a root element can take, no limit if not greater than zero
+     * @param slowThreshold milliseconds above which an attribute is recorded as slow
+     */
+    ExportBudget(long attributeTimeout, long rootTimeout, long slowThreshold) {
+        this.attributeTimeout = attributeTimeout;
+        this.rootTimeout = rootTimeout;
+        this.slowThreshold = slowThreshold;
+    }
+
+    /**
+     * Describes something, as a node or {@code null}.
+     */
+    @FunctionalInterface
+    interface Describer {
+        @CheckForNull
+        CNode describe() throws Exception;
+    }
+
+    @CheckForNull
+    CNode describeRoot(@NonNull String name, @NonNull Describer describer) throws Exception {
+        return describe(new Key(null, name), rootTimeout, ROOTS, false, describer);
+    }
+
+    /**
+     * @param owner object whose attribute is described
+     * @param name name of the attribute, as reported
+     */
+    @CheckForNull
+    CNode describeAttribute(@NonNull Object owner, @NonNull String name, @NonNull Describer describer)
+            throws ConfiguratorException {
+        return describeAttribute(new Key(owner, name), attributeTimeout, describer);
+    }
+
+    /**
+     * Describes a page of values of a multi-valued attribute, which is done after its root element was described, so
+     * within the limit of an attribute, or of a root element if attributes have none.
+     */
+    @CheckForNull
+    CNode describePage(@NonNull Object owner, @NonNull String name, @NonNull Describer describer)
+            throws ConfiguratorException {
+        return describeAttribute(
+                new Key(owner, name), attributeTimeout > 0 ? attributeTimeout : rootTimeout, describer);
+    }
+
+    private CNode describeAttribute(Key key, long timeout, Describer describer) throws ConfiguratorException {
+        try {
+            return describe(key, timeout, ATTRIBUTES, true, describer);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ConfiguratorException("Failed to export " + key.name, e);
+        }
+    }
+
+    private CNode describe(Key key, long timeout, ExecutorService executor, boolean attribute, Describer describer)
+            throws Exception {
+        final String name = key.name;
+        final long start = System.nanoTime();
+        boolean timedOut = false;
+        try {
+            if (timeout <= 0 || TIME_BOXED.get()) {
+                return describer.describe();
+            }
+            final ExportBudget running = RUNNING.get(key);
+            if (running != null) {
+                timedOut = true;
+                return new Scalar("EXPORT TIMED OUT\n" + name + ": still running since "
+                        + (running == this ? "earlier in this export" : "a previous export"));
+            }
+            final Authentication auth = Jenkins.getAuthentication2();
+            final AtomicInteger state = new AtomicInteger(QUEUED);
+            final Future<CNode> future = executor.submit(() -> {
+                if (!state.compareAndSet(QUEUED, STARTED)) {
+                    return null;
+                }
+                TIME_BOXED.set(attribute);
+                try (ACLContext acl = ACL.as2(auth)) {
+                    return describer.describe();
+                } finally {
+                    TIME_BOXED.remove();
+                    state.set(DONE);
+                    RUNNING.remove(key);
+                }
+            });
+            try {
+                return future.get(timeout, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                timedOut = true;
+                RUNNING.put(key, this);
+                if (state.compareAndSet(QUEUED, DONE) || state.get() == DONE) {
+                    // never started, or done in the meantime
+                    RUNNING.remove(key);
+                }
+                future.cancel(true);
+                LOGGER.log(Level.WARNING, "Exporting {0} took more than {1} ms, skipping it", new Object[] {
+                    name, timeout
+                });
+                return new Scalar("EXPORT TIMED OUT\n" + name + ": took more than " + timeout + " ms");
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                throw e;
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof Exception) {
+                    throw (Exception) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        } finally {
+            final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (timedOut || millis > slowThreshold) {
+                slow.add(new Timing(name, millis, timedOut));
+            }
+        }
+    }
+
+    /**
+     * An attribute of an object, compared by identity, or a root element when there is no owner.
+     */
+    private static final class Key {
+        @CheckForNull
+        private final Object owner;
+
+        private final String name;
+
+        Key(@CheckForNull Object owner, String name) {
+            this.owner = owner;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).owner == owner && ((Key) o).name.equals(name);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(owner) + name.hashCode();
+        }
+    }
+
+    private static ExecutorService newExecutor(String name) {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                THREADS,
+                THREADS,
+                60L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new NamingThreadFactory(new DaemonThreadFactory(), name));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * @return attributes and root elements which took longer than the slow threshold, slowest first
+     */
+    @NonNull
+    public List<Timing> getSlowAttributes() {
+        final List<Timing> timings = new ArrayList<>(slow);
+        timings.sort(Comparator.comparingLong(Timing::getMillis).reversed());
+        return timings;
+    }
+
+    /**
+     * Logs the slow attributes, if any.
+     */
+    void report() {
+        final List<Timing> timings = getSlowAttributes();
+        if (!timings.isEmpty()) {
+            LOGGER.log(
+                    Level.INFO,
+                    "Slow attributes during configuration export: {0}",
+                    timings.stream().map(Timing::toString).collect(Collectors.joining(", ")));
+        }
+    }
+
+    /**
+     * How long describing an attribute or root element took.
+     */
+    public static final class Timing {
+        private final String name;
+        private final long millis;
+        private final boolean timedOut;
+
+        Timing(String name, long millis, boolean timedOut) {
+            this.name = name;
+            this.millis = millis;
+            this.timedOut = timedOut;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        /**
+         * @return {@code true} if it was skipped for exceeding its limit
+         */
+        public boolean isTimedOut() {
+            return timedOut;
+        }
+
+        @Override
+        public String toString() {
+            return name + " (" + millis + " ms" + (timedOut ? ", timed out" : "") + ")";
+        }
+    }
+}
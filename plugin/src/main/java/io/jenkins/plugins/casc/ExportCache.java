@@ -0,0 +1,285 @@
+package io.jenkins.plugins.casc;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.ExtensionListListener;
+import hudson.Util;
+import hudson.XmlFile;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.model.Descriptor;
+import hudson.model.Item;
+import hudson.model.Run;
+import hudson.model.Saveable;
+import hudson.model.listeners.SaveableListener;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import jenkins.model.Jenkins;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Keeps the last rendered export until the configuration changes, as reported by {@link SaveableListener} or a
+ * configuration reload, so repeated exports of an unchanged controller are served from memory.
+ * <p>
+ * Exports are only reused for the user who requested them, and only kept up to
+ * {@code io.jenkins.plugins.casc.ExportCache.maxSize} bytes, 4 MiB by default: larger ones are streamed again on every
+ * request. Job and build changes, which are not exported, don't invalidate the cache. It can be disabled with the
+ * {@code io.jenkins.plugins.casc.ExportCache.disabled} system property.
+ */
+@Restricted(NoExternalUse.class)
+public final class ExportCache {
+
+    private static final boolean DISABLED = Boolean.getBoolean(ExportCache.class.getName() + ".disabled");
+
+    /**
+     * Largest export kept in memory, in bytes.
+     */
+    private static final int MAX_SIZE = Integer.getInteger(ExportCache.class.getName() + ".maxSize", 4 * 1024 * 1024);
+
+    /**
+     * Incremented on every change, so an export computed while the configuration changed is not kept.
+     */
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    @CheckForNull
+    private static volatile Export last;
+
+    private ExportCache() {}
+
+    /**
+     * Writes a fresh export.
+     */
+    @FunctionalInterface
+    interface Exporter {
+        void export(OutputStream out) throws Exception;
+    }
+
+    /**
+     * @return the export of the current configuration for the current user, rendered by {@code exporter} if needed
+     */
+    @NonNull
+    static Export get(@NonNull Exporter exporter) throws Exception {
+        final Export cached = cached();
+        if (cached != null) {
+            return cached;
+        }
+
+        final long generation = GENERATION.get();
+        final Export export = render(exporter, Jenkins.getAuthentication2().getName(), generation);
+        keep(export);
+        return export;
+    }
+
+    /**
+     * @return the export of the current configuration for the current user, if it is still kept
+     */
+    @CheckForNull
+    static Export cached() {
+        final Export cached = last;
+        if (DISABLED
+                || cached == null
+                || cached.generation != GENERATION.get()
+                || !Objects.equals(cached.user, Jenkins.getAuthentication2().getName())) {
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * Writes a fresh export to {@code out} as it gets rendered, computing its entity tag along the way.
+     * {@code out} is neither flushed nor closed.
+     *
+     * @param keep whether the export is the one returned by {@link #get(Exporter)}, to be kept if it is small enough
+     */
+    static void stream(@NonNull Exporter exporter, boolean keep, @NonNull OutputStream out) throws Exception {
+        final String user = Jenkins.getAuthentication2().getName();
+        final long generation = GENERATION.get();
+        final TeeOutputStream tee = new TeeOutputStream(out, keep && !DISABLED ? MAX_SIZE : -1);
+        exporter.export(tee);
+        final String etag = Export.tag(tee.getMessageDigest().digest());
+        if (tee.copy != null) {
+            keep(new Export(tee.copy.toByteArray(), etag, user, generation));
+        }
+    }
+
+    /**
+     * @return a fresh export rendered by {@code exporter}, which is not kept
+     */
+    @NonNull
+    static Export render(@NonNull Exporter exporter) throws Exception {
+        return render(exporter, Jenkins.getAuthentication2().getName(), GENERATION.get());
+    }
+
+    private static Export render(Exporter exporter, String user, long generation) throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(out);
+        final byte[] content = out.toByteArray();
+        return new Export(content, Export.tag(Export.newDigest().digest(content)), user, generation);
+    }
+
+    private static void keep(Export export) {
+        if (!DISABLED && export.content.length <= MAX_SIZE && GENERATION.get() == export.generation) {
+            last = export;
+        }
+    }
+
+    static void invalidate() {
+        GENERATION.incrementAndGet();
+        last = null;
+    }
+
+    /**
+     * Forgets exports on startup and when plugins bring new configurable components.
+     */
+    @Initializer(after = InitMilestone.EXTENSIONS_AUGMENTED)
+    public static void invalidateOnExtensionChanges() {
+        invalidate();
+        ExtensionList.lookup(Descriptor.class).addListener(new ExtensionListListener() {
+            @Override
+            public void onChange() {
+                invalidate();
+            }
+        });
+    }
+
+    /**
+     * A rendered export, identified by the digest of its content.
+     */
+    public static final class Export {
+        private final byte[] content;
+        private final String user;
+        private final long generation;
+        private final String etag;
+
+        private Export(byte[] content, String etag, String user, long generation) {
+            this.content = content;
+            this.etag = etag;
+            this.user = user;
+            this.generation = generation;
+        }
+
+        /**
+         * @return strong entity tag of the content
+         */
+        public String getETag() {
+            return etag;
+        }
+
+        /**
+         * @param ifNoneMatch {@code If-None-Match} request header, possibly {@code null}
+         * @return {@code true} if the client already has this export
+         */
+        public boolean matches(@CheckForNull String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            out.write(content);
+        }
+
+        @Override
+        public String toString() {
+            return new String(content, StandardCharsets.UTF_8);
+        }
+
+        static String tag(byte[] digest) {
+            return '"' + Util.toHexString(digest) + '"';
+        }
+
+        static MessageDigest newDigest() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+    }
+
+    /**
+     * Digests what goes through, keeping a copy as long as it doesn't exceed a limit. Flushing and closing are left
+     * to the owner of the underlying stream.
+     */
+    private static final class TeeOutputStream extends DigestOutputStream {
+        private final int limit;
+
+        /**
+         * Copy of the content, {@code null} once it exceeded the limit.
+         */
+        @CheckForNull
+        ByteArrayOutputStream copy;
+
+        /**
+         * @param limit most bytes to copy, no copy at all if negative
+         */
+        TeeOutputStream(OutputStream out, int limit) {
+            super(out, Export.newDigest());
+            this.limit = limit;
+            this.copy = limit >= 0 ? new ByteArrayOutputStream() : null;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            super.write(b);
+            if (copy != null) {
+                copy.write(b);
+                checkLimit();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            super.write(b, off, len);
+            if (copy != null) {
+                copy.write(b, off, len);
+                checkLimit();
+            }
+        }
+
+        private void checkLimit() {
+            if (copy.size() > limit) {
+                copy = null;
+            }
+        }
+
+        @Override
+        public void flush() {
+            // left to the caller
+        }
+
+        @Override
+        public void close() {
+            // left to the caller
+        }
+    }
+
+    @Extension
+    public static final class Invalidator extends SaveableListener {
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (o instanceof Item || o instanceof Run) {
+                // jobs and builds are not exported
+                return;
+            }
+            invalidate();
+        }
+    }
+}
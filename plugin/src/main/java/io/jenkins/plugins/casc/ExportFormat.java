@@ -0,0 +1,72 @@
+package io.jenkins.plugins.casc;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Serializations the configuration can be exported in.
+ */
+@Restricted(NoExternalUse.class)
+public enum ExportFormat {
+    YAML("application/x-yaml; charset=utf-8", "jenkins.yaml"),
+    /**
+     * Compact JSON, faster to produce and to parse than YAML.
+     */
+    JSON("application/json; charset=utf-8", "jenkins.json"),
+    /**
+     * {@link io.jenkins.plugins.casc.yaml.BinaryFormat}, which configuration sources can also be read from.
+     */
+    BINARY("application/octet-stream", "jenkins.casc");
+
+    private final String contentType;
+    private final String fileName;
+
+    ExportFormat(String contentType, String fileName) {
+        this.contentType = contentType;
+        this.fileName = fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * @param name case-insensitive format name, {@code null} for YAML
+     * @throws ConfiguratorException if the format is unknown
+     */
+    @NonNull
+    public static ExportFormat of(@CheckForNull String name) throws ConfiguratorException {
+        if (name == null || name.isEmpty()) {
+            return YAML;
+        }
+        try {
+            return valueOf(name.toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            throw new ConfiguratorException("Unknown export format " + name);
+        }
+    }
+
+    ExportWriter writer(OutputStream out, ConfigurationContext context) {
+        switch (this) {
+            case JSON:
+                return new JsonExportWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            case BINARY:
+                return new BinaryExportWriter(out);
+            case YAML:
+            default:
+                return new YamlExportWriter(
+                        new OutputStreamWriter(out, StandardCharsets.UTF_8),
+                        context.isExportAnchors() ? context.getYamlMaxAliasesForCollections() : 0);
+        }
+    }
+}
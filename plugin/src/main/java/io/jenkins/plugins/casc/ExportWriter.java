@@ -0,0 +1,183 @@
+package io.jenkins.plugins.casc;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.jenkins.plugins.casc.model.CNode;
+import io.jenkins.plugins.casc.model.Mapping;
+import io.jenkins.plugins.casc.model.Scalar;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the exported configuration straight to the output, one root element at a time, in some {@link ExportFormat}.
+ * <p>
+ * Mapping keys are sorted, empty scalars are skipped, as are the mappings and sequences left empty. Starts of
+ * mappings, sequences and keys are held back until some scalar is actually written under them, which is how empty
+ * branches are dropped without building an intermediate tree. Values of a {@link PagedSequence} are written one page
+ * at a time, as they get described. Writers implementing {@link Aliasing} may write some mappings and sequences only
+ * once.
+ */
+abstract class ExportWriter implements Closeable {
+
+    /**
+     * Output written only once some scalar shows up below it.
+     */
+    @FunctionalInterface
+    interface Pending {
+        void emit() throws IOException;
+    }
+
+    /**
+     * Writers able to refer to a mapping or sequence written before, rather than writing it again.
+     */
+    interface Aliasing {
+        /**
+         * @return anchor of an identical mapping or sequence written before, to refer to instead of writing it again
+         */
+        @CheckForNull
+        String aliasOf(@NonNull CNode node);
+
+        /**
+         * @return anchor to give to a mapping or sequence which is going to be referred to later
+         */
+        @CheckForNull
+        String anchorOf(@NonNull CNode node);
+
+        /**
+         * Refers to a mapping or sequence written before, see {@link #aliasOf(CNode)}.
+         */
+        void alias(@NonNull String anchor) throws IOException;
+    }
+
+    private final Deque<Pending> pending = new ArrayDeque<>();
+
+    @CheckForNull
+    private final Aliasing aliasing = this instanceof Aliasing ? (Aliasing) this : null;
+
+    /**
+     * Starts the document and its top level mapping.
+     */
+    abstract void start() throws IOException;
+
+    /**
+     * Writes a top level entry, unless its value is empty.
+     */
+    void writeRoot(@NonNull String name, @CheckForNull CNode config) throws IOException {
+        pending.add(() -> key(name));
+        write(config);
+        pending.clear();
+    }
+
+    /**
+     * Ends the top level mapping and the document.
+     */
+    abstract void end() throws IOException;
+
+    /**
+     * @param anchor name under which the mapping can be referred to later, if any
+     */
+    abstract void mappingStart(@CheckForNull String anchor) throws IOException;
+
+    abstract void mappingEnd() throws IOException;
+
+    /**
+     * @param anchor name under which the sequence can be referred to later, if any
+     */
+    abstract void sequenceStart(@CheckForNull String anchor) throws IOException;
+
+    abstract void sequenceEnd() throws IOException;
+
+    abstract void key(@NonNull String name) throws IOException;
+
+    /**
+     * @param scalar non-empty scalar value
+     */
+    abstract void scalar(@NonNull Scalar scalar) throws IOException;
+
+    private void write(@CheckForNull CNode config) throws IOException {
+        if (config == null) {
+            return;
+        }
+
+        switch (config.getType()) {
+            case MAPPING:
+                if (writeAlias(config)) {
+                    return;
+                }
+                final String mappingAnchor = aliasing != null ? aliasing.anchorOf(config) : null;
+                final Mapping mapping = config.asMapping();
+                final List<Map.Entry<String, CNode>> entries = new ArrayList<>(mapping.entrySet());
+                entries.sort(Map.Entry.comparingByKey());
+                final int mappingStart = pending.size();
+                pending.add(() -> mappingStart(mappingAnchor));
+                for (Map.Entry<String, CNode> entry : entries) {
+                    final int keyStart = pending.size();
+                    pending.add(() -> key(entry.getKey()));
+                    write(entry.getValue());
+                    if (pending.size() > keyStart) {
+                        // nothing written for this value
+                        pending.removeLast();
+                    }
+                }
+                if (pending.size() > mappingStart) {
+                    pending.removeLast();
+                } else {
+                    mappingEnd();
+                }
+                return;
+
+            case SEQUENCE:
+                if (writeAlias(config)) {
+                    return;
+                }
+                final String sequenceAnchor = aliasing != null ? aliasing.anchorOf(config) : null;
+                final int sequenceStart = pending.size();
+                pending.add(() -> sequenceStart(sequenceAnchor));
+                final Iterable<CNode> items =
+                        config instanceof PagedSequence ? (PagedSequence) config : config.asSequence();
+                for (CNode item : items) {
+                    write(item);
+                }
+                if (pending.size() > sequenceStart) {
+                    pending.removeLast();
+                } else {
+                    sequenceEnd();
+                }
+                return;
+
+            case SCALAR:
+            default:
+                final Scalar scalar = config.asScalar();
+                final String value = scalar.getValue();
+                if (value == null || value.length() == 0) {
+                    return;
+                }
+                flush();
+                scalar(scalar);
+        }
+    }
+
+    private boolean writeAlias(CNode config) throws IOException {
+        if (aliasing == null) {
+            return false;
+        }
+        final String anchor = aliasing.aliasOf(config);
+        if (anchor == null) {
+            return false;
+        }
+        flush();
+        aliasing.alias(anchor);
+        return true;
+    }
+
+    private void flush() throws IOException {
+        while (!pending.isEmpty()) {
+            pending.removeFirst().emit();
+        }
+    }
+}
@@ -269,7 +269,15 @@ class FixedInterpolatorStringLookup implements StringLookup {
             final StringLookup lookup = stringLookupMap.get(prefix);
             String value = null;
             if (lookup != null) {
-                value = lookup.lookup(name);
+                final SecretResolutionMetrics.Stats stats = SecretResolutionMetrics.get().lookup(prefix);
+                final long start = System.nanoTime();
+                try {
+                    value = lookup.lookup(name);
+                } catch (RuntimeException e) {
+                    stats.failed(System.nanoTime() - start);
+                    throw e;
+                }
+                stats.record(value != null, System.nanoTime() - start);
             }
 
             if (value != null) {
@@ -0,0 +1,146 @@
+package io.jenkins.plugins.casc;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.jenkins.plugins.casc.model.Scalar;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.regex.Pattern;
+
+/**
+ * Writes the exported configuration as compact JSON, without any whitespace.
+ * <p>
+ * Number and boolean scalars are written as JSON literals, every other scalar as a string.
+ */
+final class JsonExportWriter extends ExportWriter {
+
+    private static final Pattern NUMBER = Pattern.compile("-?(0|[1-9][0-9]*)(\\.[0-9]+)?([eE][+-]?[0-9]+)?");
+
+    private final Writer writer;
+
+    /**
+     * Whether the next key or value follows a sibling, and needs a separator.
+     */
+    private boolean separate;
+
+    JsonExportWriter(@NonNull Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    void start() throws IOException {
+        writer.write('{');
+        separate = false;
+    }
+
+    @Override
+    void end() throws IOException {
+        writer.write('}');
+        writer.flush();
+    }
+
+    @Override
+    void mappingStart(@CheckForNull String anchor) throws IOException {
+        separator();
+        writer.write('{');
+        separate = false;
+    }
+
+    @Override
+    void mappingEnd() throws IOException {
+        writer.write('}');
+        separate = true;
+    }
+
+    @Override
+    void sequenceStart(@CheckForNull String anchor) throws IOException {
+        separator();
+        writer.write('[');
+        separate = false;
+    }
+
+    @Override
+    void sequenceEnd() throws IOException {
+        writer.write(']');
+        separate = true;
+    }
+
+    @Override
+    void key(@NonNull String name) throws IOException {
+        separator();
+        string(name);
+        writer.write(':');
+        separate = false;
+    }
+
+    @Override
+    void scalar(@NonNull Scalar scalar) throws IOException {
+        separator();
+        final String value = scalar.getValue();
+        if (isLiteral(scalar.getFormat(), value)) {
+            writer.write(value);
+        } else {
+            string(value);
+        }
+        separate = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void separator() throws IOException {
+        if (separate) {
+            writer.write(',');
+        }
+    }
+
+    private static boolean isLiteral(Scalar.Format format, String value) {
+        switch (format) {
+            case NUMBER:
+                return NUMBER.matcher(value).matches();
+            case BOOLEAN:
+                return value.equals("true") || value.equals("false");
+            default:
+                return false;
+        }
+    }
+
+    private void string(String value) throws IOException {
+        writer.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            final String escaped = escape(c);
+            if (escaped != null) {
+                writer.write(value, start, i - start);
+                writer.write(escaped);
+                start = i + 1;
+            }
+        }
+        writer.write(value, start, value.length() - start);
+        writer.write('"');
+    }
+
+    private static String escape(char c) {
+        switch (c) {
+            case '"':
+                return "\\\"";
+            case '\\':
+                return "\\\\";
+            case '\n':
+                return "\\n";
+            case '\r':
+                return "\\r";
+            case '\t':
+                return "\\t";
+            case '\b':
+                return "\\b";
+            case '\f':
+                return "\\f";
+            default:
+                return c < 0x20 || c == '\u2028' || c == '\u2029' ? String.format("\\u%04x", (int) c) : null;
+        }
+    }
+}
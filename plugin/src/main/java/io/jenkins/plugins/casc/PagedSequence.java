@@ -0,0 +1,115 @@
+package io.jenkins.plugins.casc;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.jenkins.plugins.casc.model.CNode;
+import io.jenkins.plugins.casc.model.Sequence;
+import io.jenkins.plugins.casc.model.Source;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Exported sequence whose values are only described when iterated, one page at a time.
+ * <p>
+ * {@link ExportWriter} writes each page before the next one is described, so exporting a multi-valued attribute
+ * with thousands of values, such as users or agents, only keeps a page of nodes in memory. Other consumers get a
+ * regular {@link Sequence} from {@link #asSequence()}, describing all values once: later calls, clones and iterations
+ * reuse it.
+ */
+final class PagedSequence implements CNode, Iterable<CNode> {
+
+    /**
+     * Describes a page of values, reporting failures in the returned nodes rather than throwing.
+     */
+    @FunctionalInterface
+    interface Describer {
+        @NonNull
+        List<CNode> describe(@NonNull List<?> values);
+    }
+
+    private final Iterable<?> values;
+    private final int pageSize;
+    private final Describer describer;
+
+    /**
+     * All the values, once described by {@link #asSequence()}.
+     */
+    @CheckForNull
+    private Sequence described;
+
+    PagedSequence(@NonNull Iterable<?> values, int pageSize, @NonNull Describer describer) {
+        this.values = values;
+        this.pageSize = pageSize;
+        this.describer = describer;
+    }
+
+    @Override
+    public Type getType() {
+        return Type.SEQUENCE;
+    }
+
+    @Override
+    public synchronized Sequence asSequence() {
+        if (described == null) {
+            final Sequence sequence = new Sequence();
+            pages().forEachRemaining(sequence::add);
+            described = sequence;
+        }
+        return described;
+    }
+
+    @Override
+    public Source getSource() {
+        return null;
+    }
+
+    @Override
+    public CNode clone() {
+        return asSequence().clone();
+    }
+
+    @NonNull
+    @Override
+    public Iterator<CNode> iterator() {
+        synchronized (this) {
+            if (described != null) {
+                return described.iterator();
+            }
+        }
+        return pages();
+    }
+
+    private Iterator<CNode> pages() {
+        final Iterator<?> cursor = values.iterator();
+        return new Iterator<CNode>() {
+            private Iterator<CNode> page = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                if (!page.hasNext() && cursor.hasNext()) {
+                    page = nextPage(cursor);
+                }
+                return page.hasNext();
+            }
+
+            @Override
+            public CNode next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.next();
+            }
+        };
+    }
+
+    private Iterator<CNode> nextPage(Iterator<?> cursor) {
+        final List<Object> page = new ArrayList<>(pageSize);
+        while (page.size() < pageSize && cursor.hasNext()) {
+            page.add(cursor.next());
+        }
+        return describer.describe(page).iterator();
+    }
+}
@@ -0,0 +1,108 @@
+package io.jenkins.plugins.casc;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.ExtensionList;
+import hudson.ExtensionListListener;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.model.Descriptor;
+import io.jenkins.plugins.casc.impl.DefaultConfiguratorRegistry;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Keeps the generated JSON schema, and its compiled form used by {@link SchemaValidator}, until the set of
+ * configurable components changes, that is until plugins bring new descriptors or configurators.
+ * <p>
+ * The schema only depends on installed plugins, not on the configuration, so unlike {@link ExportCache} it is shared
+ * by all users and not invalidated by configuration changes. Concurrent requests for a stale schema wait for a single
+ * generation. It can be disabled with the {@code io.jenkins.plugins.casc.SchemaCache.disabled} system property.
+ */
+@Restricted(NoExternalUse.class)
+public final class SchemaCache {
+
+    private static final boolean DISABLED = Boolean.getBoolean(SchemaCache.class.getName() + ".disabled");
+
+    /**
+     * Incremented on every change, so a schema generated while extensions changed is not reused.
+     */
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    @CheckForNull
+    private static ExportCache.Export schema;
+
+    private static long schemaGeneration;
+
+    private static final Object VALIDATOR_LOCK = new Object();
+
+    @CheckForNull
+    private static SchemaValidator validator;
+
+    private static long validatorGeneration;
+
+    private SchemaCache() {}
+
+    /**
+     * @return the JSON schema of the installed plugins, generated if needed
+     */
+    @NonNull
+    public static synchronized ExportCache.Export get() throws Exception {
+        final long generation = GENERATION.get();
+        if (!DISABLED && schema != null && schemaGeneration == generation) {
+            return schema;
+        }
+
+        final ExportCache.Export generated = ExportCache.render(
+                out -> SchemaGeneration.writeJSONSchema(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        if (!DISABLED) {
+            schema = generated;
+            schemaGeneration = generation;
+        }
+        return generated;
+    }
+
+    /**
+     * @return the compiled form of the schema of the installed plugins, which compiles configurators on first use
+     */
+    @NonNull
+    static SchemaValidator validator() {
+        // not waiting for a schema being generated
+        synchronized (VALIDATOR_LOCK) {
+            final long generation = GENERATION.get();
+            if (!DISABLED && validator != null && validatorGeneration == generation) {
+                return validator;
+            }
+
+            final SchemaValidator compiled = new SchemaValidator(new DefaultConfiguratorRegistry());
+            if (!DISABLED) {
+                validator = compiled;
+                validatorGeneration = generation;
+            }
+            return compiled;
+        }
+    }
+
+    static void invalidate() {
+        GENERATION.incrementAndGet();
+    }
+
+    /**
+     * Forgets the schema on startup and when plugins bring new configurable components.
+     */
+    @Initializer(after = InitMilestone.EXTENSIONS_AUGMENTED)
+    public static void invalidateOnExtensionChanges() {
+        invalidate();
+        final ExtensionListListener listener = new ExtensionListListener() {
+            @Override
+            public void onChange() {
+                invalidate();
+            }
+        };
+        ExtensionList.lookup(Descriptor.class).addListener(listener);
+        ExtensionList.lookup(Configurator.class).addListener(listener);
+    }
+}
@@ -1,9 +1,15 @@
 package io.jenkins.plugins.casc;
 
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
 import io.jenkins.plugins.casc.impl.DefaultConfiguratorRegistry;
 import io.jenkins.plugins.casc.impl.attributes.DescribableAttribute;
 import io.jenkins.plugins.casc.impl.configurators.HeteroDescribableConfigurator;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
@@ -13,11 +19,16 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
+import jenkins.model.Jenkins;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.Beta;
+import org.springframework.security.core.Authentication;
 
 @Restricted(Beta.class)
 public class SchemaGeneration {
@@ -32,85 +43,162 @@ public class SchemaGeneration {
 
     public static JSONObject generateSchema() {
         JSONObject schemaObject = new JSONObject(schemaTemplateObject.toString());
+        JSONObject rootConfiguratorProperties = new JSONObject();
+        try {
+            generateRootSchemas(rootConfiguratorProperties::put);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ConfiguratorException("Failed to generate the JSON schema", e);
+        }
+        schemaObject.put("properties", rootConfiguratorProperties);
+        return schemaObject;
+    }
+
+    public static String writeJSONSchema() {
+        StringWriter writer = new StringWriter();
+        try {
+            writeJSONSchema(writer);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ConfiguratorException("Failed to generate the JSON schema", e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Writes the schema as root configurators are done, without holding the whole schema in memory. Root
+     * configurators are generated concurrently, see {@link ConfigurationContext#getSchemaThreads()}, and written in
+     * registration order.
+     */
+    public static void writeJSONSchema(Writer writer) throws Exception {
+        writer.write("{");
+        for (String key : schemaTemplateObject.keySet()) {
+            writer.write("\n    ");
+            writer.write(JSONObject.quote(key));
+            writer.write(": ");
+            writer.write(JSONObject.valueToString(schemaTemplateObject.get(key)));
+            writer.write(",");
+        }
+        writer.write("\n    \"properties\": {");
+        final boolean[] first = {true};
+        generateRootSchemas((name, rootSchema) -> {
+            writer.write(first[0] ? "\n        " : ",\n        ");
+            first[0] = false;
+            writer.write(JSONObject.quote(name));
+            writer.write(": ");
+            rootSchema.write(writer, 4, 8);
+        });
+        writer.write(first[0] ? "}\n}" : "\n    }\n}");
+        writer.flush();
+    }
+
+    /**
+     * Receives the schema of each root configurator.
+     */
+    @FunctionalInterface
+    private interface RootSchemaConsumer {
+        void accept(String name, JSONObject rootSchema) throws IOException;
+    }
+
+    private static void generateRootSchemas(RootSchemaConsumer consumer) throws Exception {
         DefaultConfiguratorRegistry registry = new DefaultConfiguratorRegistry();
         final ConfigurationContext context = new ConfigurationContext(registry);
+        final List<RootElementConfigurator> roots = RootElementConfigurator.all();
+        final int threads = Math.min(context.getSchemaThreads(), roots.size());
+        if (threads <= 1) {
+            for (RootElementConfigurator root : roots) {
+                consumer.accept(root.getName(), generateRootSchema(root, context));
+            }
+            return;
+        }
 
-        JSONObject rootConfiguratorProperties = new JSONObject();
-        for (RootElementConfigurator rootElementConfigurator : RootElementConfigurator.all()) {
-            JSONObject schemaConfiguratorObjects = new JSONObject();
-            Set<Object> elements = new LinkedHashSet<>();
-            listElements(elements, rootElementConfigurator.describe(), context, true);
-            for (Object configuratorObject : elements) {
-                if (configuratorObject instanceof BaseConfigurator) {
-                    BaseConfigurator baseConfigurator = (BaseConfigurator) configuratorObject;
-                    List<Attribute> baseConfigAttributeList = baseConfigurator.getAttributes();
-
-                    if (baseConfigAttributeList.size() == 0) {
-                        String key = baseConfigurator.getName();
-                        schemaConfiguratorObjects.put(
-                                key,
-                                new JSONObject()
-                                        .put("additionalProperties", false)
-                                        .put("type", "object")
-                                        .put("properties", new JSONObject()));
-
-                    } else {
-                        JSONObject attributeSchema = new JSONObject();
-                        for (Attribute attribute : baseConfigAttributeList) {
-                            if (attribute.multiple) {
-                                generateMultipleAttributeSchema(attributeSchema, attribute, context, baseConfigurator);
+        final ExecutorService executor = Executors.newFixedThreadPool(
+                threads, new NamingThreadFactory(new DaemonThreadFactory(), "CasC schema generation"));
+        try {
+            final Authentication auth = Jenkins.getAuthentication2();
+            final List<Future<JSONObject>> generated = new ArrayList<>();
+            for (RootElementConfigurator root : roots) {
+                generated.add(executor.submit(() -> {
+                    try (ACLContext acl = ACL.as2(auth)) {
+                        return generateRootSchema(root, context);
+                    }
+                }));
+            }
+            // written in registration order whatever the completion order, dropped once written
+            for (int i = 0; i < roots.size(); i++) {
+                consumer.accept(roots.get(i).getName(), ConfigurationAsCode.await(generated.get(i)));
+                generated.set(i, null);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static JSONObject generateRootSchema(RootElementConfigurator root, ConfigurationContext context) {
+        JSONObject schemaConfiguratorObjects = new JSONObject();
+        Set<Object> elements = new LinkedHashSet<>();
+        listElements(elements, root.describe(), context, true);
+        for (Object configuratorObject : elements) {
+            if (configuratorObject instanceof BaseConfigurator) {
+                BaseConfigurator baseConfigurator = (BaseConfigurator) configuratorObject;
+                List<Attribute> baseConfigAttributeList = baseConfigurator.getAttributes();
+
+                if (baseConfigAttributeList.size() == 0) {
+                    String key = baseConfigurator.getName();
+                    schemaConfiguratorObjects.put(
+                            key,
+                            new JSONObject()
+                                    .put("additionalProperties", false)
+                                    .put("type", "object")
+                                    .put("properties", new JSONObject()));
+
+                } else {
+                    JSONObject attributeSchema = new JSONObject();
+                    for (Attribute attribute : baseConfigAttributeList) {
+                        if (attribute.multiple) {
+                            generateMultipleAttributeSchema(attributeSchema, attribute, context, baseConfigurator);
+                        } else {
+                            if (attribute.type.isEnum()) {
+                                generateEnumAttributeSchema(attributeSchema, attribute, baseConfigurator);
                             } else {
-                                if (attribute.type.isEnum()) {
-                                    generateEnumAttributeSchema(attributeSchema, attribute, baseConfigurator);
-                                } else {
-                                    attributeSchema.put(
-                                            attribute.getName(),
-                                            generateNonEnumAttributeObject(attribute, baseConfigurator));
-                                    String key = baseConfigurator.getName();
-
-                                    schemaConfiguratorObjects.put(
-                                            key,
-                                            new JSONObject()
-                                                    .put("additionalProperties", false)
-                                                    .put("type", "object")
-                                                    .put("properties", attributeSchema));
-                                }
+                                attributeSchema.put(
+                                        attribute.getName(),
+                                        generateNonEnumAttributeObject(attribute, baseConfigurator));
+                                String key = baseConfigurator.getName();
+
+                                schemaConfiguratorObjects.put(
+                                        key,
+                                        new JSONObject()
+                                                .put("additionalProperties", false)
+                                                .put("type", "object")
+                                                .put("properties", attributeSchema));
                             }
                         }
                     }
-                } else if (configuratorObject instanceof HeteroDescribableConfigurator) {
-                    HeteroDescribableConfigurator heteroDescribableConfigurator =
-                            (HeteroDescribableConfigurator) configuratorObject;
-                    String key = heteroDescribableConfigurator.getName();
-                    schemaConfiguratorObjects.put(
-                            key, generateHeteroDescribableConfigObject(heteroDescribableConfigurator));
-                } else if (configuratorObject instanceof Attribute) {
-                    Attribute attribute = (Attribute) configuratorObject;
-                    if (attribute.type.isEnum()) {
-                        generateEnumAttributeSchema(schemaConfiguratorObjects, attribute, null);
-                    } else {
-                        schemaConfiguratorObjects.put(
-                                attribute.getName(), generateNonEnumAttributeObject(attribute, null));
-                    }
+                }
+            } else if (configuratorObject instanceof HeteroDescribableConfigurator) {
+                HeteroDescribableConfigurator heteroDescribableConfigurator =
+                        (HeteroDescribableConfigurator) configuratorObject;
+                String key = heteroDescribableConfigurator.getName();
+                schemaConfiguratorObjects.put(
+                        key, generateHeteroDescribableConfigObject(heteroDescribableConfigurator));
+            } else if (configuratorObject instanceof Attribute) {
+                Attribute attribute = (Attribute) configuratorObject;
+                if (attribute.type.isEnum()) {
+                    generateEnumAttributeSchema(schemaConfiguratorObjects, attribute, null);
+                } else {
+                    schemaConfiguratorObjects.put(attribute.getName(), generateNonEnumAttributeObject(attribute, null));
                 }
             }
-
-            rootConfiguratorProperties.put(
-                    rootElementConfigurator.getName(),
-                    new JSONObject()
-                            .put("type", "object")
-                            .put("additionalProperties", false)
-                            .put("properties", schemaConfiguratorObjects)
-                            .put(
-                                    "title",
-                                    "Configuration base for the " + rootElementConfigurator.getName() + " classifier"));
         }
-        schemaObject.put("properties", rootConfiguratorProperties);
-        return schemaObject;
-    }
 
-    public static String writeJSONSchema() {
-        return generateSchema().toString(4);
+        return new JSONObject()
+                .put("type", "object")
+                .put("additionalProperties", false)
+                .put("properties", schemaConfiguratorObjects)
+                .put("title", "Configuration base for the " + root.getName() + " classifier");
     }
 
     private static JSONObject generateHeteroDescribableConfigObject(
@@ -0,0 +1,245 @@
+package io.jenkins.plugins.casc;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.jenkins.plugins.casc.impl.configurators.HeteroDescribableConfigurator;
+import io.jenkins.plugins.casc.model.CNode;
+import io.jenkins.plugins.casc.model.Mapping;
+import io.jenkins.plugins.casc.model.Source;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Compiled form of the JSON schema, checking the configuration sources before any configurator runs.
+ * <p>
+ * Like the schema, mappings handled by a {@link BaseConfigurator} may only use its attribute names, implementations
+ * of a describable are looked up by symbol, and enumerations, integers and booleans must have a valid value. Each
+ * configurator is compiled into a lookup table once, on first use, so that checking is a single walk of the model,
+ * without describing anything nor resolving secrets. Values using variables, and whatever the schema doesn't
+ * describe, are left to the configurators.
+ */
+@Restricted(NoExternalUse.class)
+public final class SchemaValidator {
+
+    private static final Pattern INTEGER = Pattern.compile("[-+]?\\d+");
+
+    /**
+     * Values Stapler converts to booleans.
+     */
+    private static final Set<String> BOOLEANS =
+            new HashSet<>(Arrays.asList("true", "false", "yes", "no", "y", "n", "on", "off", "1", "0"));
+
+    private static final Set<Class<?>> INTEGER_TYPES =
+            new HashSet<>(Arrays.asList(int.class, Integer.class, long.class, Long.class));
+
+    private static final Set<Class<?>> BOOLEAN_TYPES = new HashSet<>(Arrays.asList(boolean.class, Boolean.class));
+
+    /**
+     * Name of the root element configuring the configuration context.
+     */
+    private static final String SELF = "configuration-as-code";
+
+    private final ConfiguratorRegistry registry;
+    private final Map<String, Rule> roots = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Rule> types = new ConcurrentHashMap<>();
+
+    SchemaValidator(@NonNull ConfiguratorRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * @throws ConfiguratorException listing every error found, with the file and line it comes from
+     */
+    void validate(@NonNull Mapping entries, @NonNull ConfigurationContext context) throws ConfiguratorException {
+        final List<String> errors = new ArrayList<>();
+        final boolean rejectUnknown = rejectsUnknown(entries, context);
+        for (Map.Entry<String, CNode> entry : entries.entrySet()) {
+            if (!ConfigurationAsCode.isNotAliasEntry(entry.getKey())) {
+                continue;
+            }
+            final RootElementConfigurator root = registry.lookupRootElement(entry.getKey());
+            if (root == null) {
+                errors.add(error(entry.getKey(), entry.getValue(), "no configurator for this root element"));
+                continue;
+            }
+            final Rule rule = roots.computeIfAbsent(root.getName(), name -> compile(root));
+            check(errors, rejectUnknown, root.getName(), rule, entry.getValue());
+        }
+        if (!errors.isEmpty()) {
+            throw new ConfiguratorException("Configuration doesn't match the schema:\n" + String.join("\n", errors));
+        }
+    }
+
+    /**
+     * The sources may change how unknown attributes are handled, which is only applied once configurators run.
+     */
+    private static boolean rejectsUnknown(Mapping entries, ConfigurationContext context) throws ConfiguratorException {
+        for (Map.Entry<String, CNode> entry : entries.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(SELF) && entry.getValue().getType() == CNode.Type.MAPPING) {
+                final CNode unknown = entry.getValue().asMapping().get("unknown");
+                if (unknown != null && unknown.getType() == CNode.Type.SCALAR) {
+                    return ConfigurationContext.Unknown.reject.name().equals(unknown.asScalar().getValue());
+                }
+            }
+        }
+        return context.getUnknown() == ConfigurationContext.Unknown.reject;
+    }
+
+    private void check(List<String> errors, boolean rejectUnknown, String path, Rule rule, CNode node)
+            throws ConfiguratorException {
+        switch (node.getType()) {
+            case MAPPING:
+                final Mapping mapping = node.asMapping();
+                if (rule.attributes != null) {
+                    for (Map.Entry<String, CNode> entry : mapping.entrySet()) {
+                        final String childPath = path + "." + entry.getKey();
+                        final Attribute<?, ?> attribute = rule.attributes.get(entry.getKey());
+                        if (attribute == null) {
+                            if (rejectUnknown) {
+                                errors.add(error(childPath, entry.getValue(), "not an attribute of " + rule.name));
+                            }
+                            continue;
+                        }
+                        final Rule child = rule(attribute.getType());
+                        if (child == null) {
+                            continue;
+                        }
+                        final CNode value = entry.getValue();
+                        if (attribute.isMultiple() && value.getType() == CNode.Type.SEQUENCE) {
+                            int i = 0;
+                            for (CNode item : value.asSequence()) {
+                                check(errors, rejectUnknown, childPath + "[" + i++ + "]", child, item);
+                            }
+                        } else if (!attribute.isMultiple()) {
+                            check(errors, rejectUnknown, childPath, child, value);
+                        }
+                    }
+                } else if (rule.implementors != null && mapping.size() == 1) {
+                    final Map.Entry<String, CNode> entry = mapping.entrySet().iterator().next();
+                    final Class<?> implementation = rule.implementors.get(entry.getKey());
+                    final Rule child = implementation != null ? rule(implementation) : null;
+                    if (child != null) {
+                        check(errors, rejectUnknown, path + "." + entry.getKey(), child, entry.getValue());
+                    }
+                }
+                return;
+
+            case SCALAR:
+                final String value = node.asScalar().getValue();
+                if (rule.values == null || value == null || value.contains("${")) {
+                    return;
+                }
+                if (!rule.values.test(value)) {
+                    errors.add(error(path, node, "expected " + rule.expected + ", found '" + value + "'"));
+                }
+                return;
+
+            case SEQUENCE:
+            default:
+                // checked by the configurators
+        }
+    }
+
+    @CheckForNull
+    private Rule rule(Class<?> type) {
+        return types.computeIfAbsent(type, t -> {
+            final Configurator<?> configurator = registry.lookup(t);
+            return configurator != null ? compile(configurator) : null;
+        });
+    }
+
+    private static Rule compile(Configurator<?> configurator) {
+        final Class<?> target = configurator.getTarget();
+        if (configurator instanceof BaseConfigurator) {
+            final Map<String, Attribute<?, ?>> attributes = new HashMap<>();
+            for (Attribute<?, ?> attribute : ((BaseConfigurator<?>) configurator).getAttributes()) {
+                attributes.put(attribute.getName(), attribute);
+                for (String alias : attribute.getAliases()) {
+                    attributes.putIfAbsent(alias, attribute);
+                }
+            }
+            return new Rule(configurator.getName(), attributes, null, null, null);
+        }
+        if (configurator instanceof HeteroDescribableConfigurator) {
+            final Map<String, Class<?>> implementors =
+                    new HashMap<>(((HeteroDescribableConfigurator<?>) configurator).getImplementors());
+            return new Rule(configurator.getName(), null, implementors, null, null);
+        }
+        if (target.isEnum()) {
+            final Set<String> constants = new LinkedHashSet<>();
+            for (Object constant : target.getEnumConstants()) {
+                constants.add(((Enum<?>) constant).name());
+            }
+            return new Rule(configurator.getName(), null, null, constants::contains, "one of " + constants);
+        }
+        if (INTEGER_TYPES.contains(target)) {
+            return new Rule(
+                    configurator.getName(),
+                    null,
+                    null,
+                    value -> INTEGER.matcher(value.trim()).matches(),
+                    "an integer");
+        }
+        if (BOOLEAN_TYPES.contains(target)) {
+            return new Rule(
+                    configurator.getName(),
+                    null,
+                    null,
+                    value -> BOOLEANS.contains(value.trim().toLowerCase(Locale.ENGLISH)),
+                    "a boolean");
+        }
+        return new Rule(configurator.getName(), null, null, null, null);
+    }
+
+    private static String error(String path, CNode node, String message) {
+        final Source source = node.getSource();
+        return "  " + path + ": " + message + (source != null ? " (" + source.file + ":" + source.line + ")" : "");
+    }
+
+    /**
+     * What the schema allows for a type.
+     */
+    private static final class Rule {
+        final String name;
+
+        /** Attributes by name and alias, for mappings. */
+        @CheckForNull
+        final Map<String, Attribute<?, ?>> attributes;
+
+        /** Implementations by symbol, for describables. */
+        @CheckForNull
+        final Map<String, Class<?>> implementors;
+
+        /** Valid scalar values. */
+        @CheckForNull
+        final Predicate<String> values;
+
+        final String expected;
+
+        Rule(
+                String name,
+                @CheckForNull Map<String, Attribute<?, ?>> attributes,
+                @CheckForNull Map<String, Class<?>> implementors,
+                @CheckForNull Predicate<String> values,
+                @CheckForNull String expected) {
+            this.name = name;
+            this.attributes = attributes != null ? Collections.unmodifiableMap(attributes) : null;
+            this.implementors = implementors;
+            this.values = values;
+            this.expected = expected;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package io.jenkins.plugins.casc;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Counters and latency histograms of the secret resolution, per {@link SecretSource} class and per lookup prefix
+ * ({@code file}, {@code base64}, {@code json}...), since the controller started.
+ * <p>
+ * Statistics are only keyed by source class or prefix, never by secret name or value.
+ * They are shown on the management page and published as JMX beans under the {@value #JMX_DOMAIN} domain.
+ */
+@Restricted(NoExternalUse.class)
+public final class SecretResolutionMetrics {
+
+    private static final Logger LOGGER = Logger.getLogger(SecretResolutionMetrics.class.getName());
+
+    static final String JMX_DOMAIN = "io.jenkins.plugins.casc";
+
+    /**
+     * Upper bounds of the latency histogram buckets, in milliseconds, the last bucket being unbounded.
+     */
+    private static final long[] BUCKETS = {1, 10, 100, 1000, 10000};
+
+    private static final SecretResolutionMetrics INSTANCE = new SecretResolutionMetrics();
+
+    private final Map<String, Stats> sources = new ConcurrentHashMap<>();
+    private final Map<String, Stats> lookups = new ConcurrentHashMap<>();
+    private final LongAdder unresolved = new LongAdder();
+
+    private SecretResolutionMetrics() {
+        register(this::getUnresolved, UnresolvedMBean.class, "type=SecretResolution");
+    }
+
+    public static SecretResolutionMetrics get() {
+        return INSTANCE;
+    }
+
+    @NonNull
+    Stats source(@NonNull SecretSource source) {
+        return sources.computeIfAbsent(source.getClass().getName(), name -> newStats("source", name));
+    }
+
+    @NonNull
+    Stats lookup(@NonNull String prefix) {
+        return lookups.computeIfAbsent(prefix, name -> newStats("lookup", name));
+    }
+
+    void unresolved() {
+        unresolved.increment();
+    }
+
+    /**
+     * @return statistics per secret source class, sorted by class name
+     */
+    public Collection<Stats> getSources() {
+        return sorted(sources);
+    }
+
+    /**
+     * @return statistics per lookup prefix, sorted by prefix
+     */
+    public Collection<Stats> getLookups() {
+        return sorted(lookups);
+    }
+
+    /**
+     * @return variables no lookup nor source could resolve, and without default value
+     */
+    public long getUnresolved() {
+        return unresolved.sum();
+    }
+
+    /**
+     * @return labels of the {@link Stats#getLatencyHistogram() latency histogram} buckets
+     */
+    public String[] getLatencyBuckets() {
+        final String[] labels = new String[BUCKETS.length + 1];
+        for (int i = 0; i < BUCKETS.length; i++) {
+            labels[i] = "<= " + BUCKETS[i] + " ms";
+        }
+        labels[BUCKETS.length] = "> " + BUCKETS[BUCKETS.length - 1] + " ms";
+        return labels;
+    }
+
+    private static Collection<Stats> sorted(Map<String, Stats> stats) {
+        final List<Stats> values = new ArrayList<>(stats.values());
+        values.sort(Comparator.comparing(Stats::getName));
+        return values;
+    }
+
+    private static Stats newStats(String kind, String name) {
+        final Stats stats = new Stats(name);
+        register(stats, StatsMBean.class, "type=SecretResolution,kind=" + kind + ",name=" + ObjectName.quote(name));
+        return stats;
+    }
+
+    private static <T> void register(T implementation, Class<T> type, String properties) {
+        try {
+            final ObjectName objectName = new ObjectName(JMX_DOMAIN + ":" + properties);
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(new StandardMBean(implementation, type, false), objectName);
+            }
+        } catch (JMException e) {
+            LOGGER.log(Level.FINE, "Failed to publish secret resolution metrics " + properties, e);
+        }
+    }
+
+    /**
+     * JMX view of the unresolved variables counter.
+     */
+    public interface UnresolvedMBean {
+        long getUnresolved();
+    }
+
+    /**
+     * JMX view of {@link Stats}.
+     */
+    public interface StatsMBean {
+        String getName();
+
+        long getRequests();
+
+        long getHits();
+
+        long getMisses();
+
+        long getFailures();
+
+        long getTotalTimeMillis();
+
+        long getMeanTimeMillis();
+
+        long getMaxTimeMillis();
+
+        long[] getLatencyHistogram();
+    }
+
+    /**
+     * Statistics of one secret source or lookup prefix.
+     * A request is a single reveal or lookup call, hits and misses are counted per secret.
+     */
+    public static final class Stats implements StatsMBean {
+
+        private final String name;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder[] histogram = new LongAdder[BUCKETS.length + 1];
+
+        private Stats(String name) {
+            this.name = name;
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = new LongAdder();
+            }
+        }
+
+        void record(boolean hit, long nanos) {
+            record(hit ? 1 : 0, hit ? 0 : 1, nanos);
+        }
+
+        void record(long hits, long misses, long nanos) {
+            this.hits.add(hits);
+            this.misses.add(misses);
+            time(nanos);
+        }
+
+        void failed(long nanos) {
+            failures.increment();
+            time(nanos);
+        }
+
+        private void time(long nanos) {
+            requests.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            final long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+            int bucket = 0;
+            while (bucket < BUCKETS.length && millis > BUCKETS[bucket]) {
+                bucket++;
+            }
+            histogram[bucket].increment();
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public long getRequests() {
+            return requests.sum();
+        }
+
+        @Override
+        public long getHits() {
+            return hits.sum();
+        }
+
+        @Override
+        public long getMisses() {
+            return misses.sum();
+        }
+
+        @Override
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        @Override
+        public long getTotalTimeMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(totalNanos.sum());
+        }
+
+        @Override
+        public long getMeanTimeMillis() {
+            final long count = requests.sum();
+            return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos.sum() / count);
+        }
+
+        @Override
+        public long getMaxTimeMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+        }
+
+        /**
+         * @return number of requests per latency bucket, see {@link SecretResolutionMetrics#getLatencyBuckets()}
+         */
+        @Override
+        public long[] getLatencyHistogram() {
+            final long[] counts = new long[histogram.length];
+            for (int i = 0; i < histogram.length; i++) {
+                counts[i] = histogram[i].sum();
+            }
+            return counts;
+        }
+    }
+}
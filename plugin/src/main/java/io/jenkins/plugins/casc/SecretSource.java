@@ -1,11 +1,30 @@
 package io.jenkins.plugins.casc;
 
 import hudson.ExtensionPoint;
+import hudson.Util;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import jenkins.model.Jenkins;
+import org.apache.commons.lang.math.NumberUtils;
+import org.springframework.security.core.Authentication;
 
 /**
  * Resolves variable references in configuration file of the form "${abc}"
@@ -15,6 +34,14 @@ import jenkins.model.Jenkins;
  */
 public abstract class SecretSource implements ExtensionPoint {
 
+    public static final String CASC_SECRET_SOURCE_TIMEOUT_ENV = "CASC_SECRET_SOURCE_TIMEOUT";
+    public static final String CASC_SECRET_SOURCE_TIMEOUT_PROPERTY = "casc.secret.source.timeout";
+
+    /**
+     * Default deadline for a source to reveal secrets, in seconds.
+     */
+    private static final long DEFAULT_TIMEOUT = 300;
+
     public void init() {
         // NOOP
     }
@@ -40,6 +67,132 @@ public abstract class SecretSource implements ExtensionPoint {
      */
     public abstract Optional<String> reveal(String secret) throws IOException;
 
+    /**
+     * Reveal the plaintext values of several secrets at once.
+     * CasC calls this before checking a configuration, with all variable references found in it,
+     * so sources backed by a remote store can override it to fetch them in a single call.
+     * The default implementation calls {@link #reveal(String)} for each secret.
+     *
+     * @param secrets the variable references to reveal
+     *
+     * @return the values of the secrets found in this source, keyed by variable reference.
+     * Secrets which could not be found are left out.
+     *
+     * @throws IOException if an unrecoverable error occurred, see {@link #reveal(String)}
+     * @since TODO
+     */
+    public Map<String, String> revealAll(Set<String> secrets) throws IOException {
+        final Map<String, String> revealed = new HashMap<>();
+        for (String secret : secrets) {
+            final Optional<String> value = reveal(secret);
+            if (value.isPresent()) {
+                revealed.put(secret, value.get());
+            }
+        }
+        return revealed;
+    }
+
+    /**
+     * Asynchronous variant of {@link #reveal(String)}.
+     * The default implementation runs {@link #reveal(String)} on a bounded thread pool of this source class,
+     * with the authentication of the caller, and interrupts it if the future is cancelled, as when the
+     * {@link #getTimeout() deadline} expires. Sources backed by an asynchronous client can override it,
+     * sources which only read from memory can complete the future right away.
+     *
+     * @param secret the variable reference to reveal
+     * @return a future completed with the value as per {@link #reveal(String)},
+     * or exceptionally with the {@link IOException} it throws
+     * @since TODO
+     */
+    public CompletableFuture<Optional<String>> revealAsync(String secret) {
+        return supplyAsync(() -> reveal(secret));
+    }
+
+    /**
+     * Asynchronous variant of {@link #revealAll(Set)}.
+     * The default implementation runs {@link #revealAll(Set)} on the thread pool used by {@link #revealAsync(String)}.
+     *
+     * @param secrets the variable references to reveal
+     * @return a future completed with the values as per {@link #revealAll(Set)}
+     * @since TODO
+     */
+    public CompletableFuture<Map<String, String>> revealAllAsync(Set<String> secrets) {
+        return supplyAsync(() -> revealAll(secrets));
+    }
+
+    /**
+     * Deadline for this source to reveal secrets. When it expires the configuration fails,
+     * rather than waiting for a hung backend forever, including during controller startup.
+     * <p>
+     * Defaults to the {@code <source class name>.timeout} system property, then to the
+     * {@value #CASC_SECRET_SOURCE_TIMEOUT_PROPERTY} system property or {@value #CASC_SECRET_SOURCE_TIMEOUT_ENV}
+     * environment variable, in seconds, then to 5 minutes. Zero or less disables the deadline.
+     *
+     * @return how long to wait for a secret from this source
+     * @since TODO
+     */
+    public Duration getTimeout() {
+        String timeout = Util.fixEmptyAndTrim(System.getProperty(getClass().getName() + ".timeout"));
+        if (timeout == null) {
+            timeout = Util.fixEmptyAndTrim(System.getProperty(
+                    CASC_SECRET_SOURCE_TIMEOUT_PROPERTY, System.getenv(CASC_SECRET_SOURCE_TIMEOUT_ENV)));
+        }
+        return Duration.ofSeconds(NumberUtils.toLong(timeout, DEFAULT_TIMEOUT));
+    }
+
+    /**
+     * Runs a task on the thread pool of this source, so that the result can be interrupted once its deadline
+     * expires: cancelling the returned future interrupts the thread running the task.
+     */
+    private <V> CompletableFuture<V> supplyAsync(Callable<V> task) {
+        final Authentication auth = Jenkins.getAuthentication2();
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        final Future<?> running = RevealExecutors.of(getClass()).submit(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            try (ACLContext acl = ACL.as2(auth)) {
+                result.complete(task.call());
+            } catch (Exception | Error e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((value, failure) -> {
+            if (result.isCancelled()) {
+                running.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Thread pools for {@link #revealAsync(String)}, one per source class, so that a hung backend only holds the
+     * threads of its own source.
+     */
+    private static final class RevealExecutors {
+        private static final int THREADS =
+                NumberUtils.toInt(System.getProperty(SecretSource.class.getName() + ".threads"), 8);
+
+        private static final Map<Class<?>, ExecutorService> EXECUTORS = new ConcurrentHashMap<>();
+
+        static ExecutorService of(Class<?> source) {
+            return EXECUTORS.computeIfAbsent(source, RevealExecutors::create);
+        }
+
+        private static ExecutorService create(Class<?> source) {
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                    THREADS,
+                    THREADS,
+                    60L,
+                    TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    new NamingThreadFactory(
+                            new DaemonThreadFactory(), "CasC SecretSource " + source.getSimpleName()));
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+
     public static List<SecretSource> all() {
         return new ArrayList<>(Jenkins.get().getExtensionList(SecretSource.class));
     }
@@ -4,64 +4,84 @@ import static io.vavr.API.unchecked;
 
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import io.jenkins.plugins.casc.model.CNode;
+import io.jenkins.plugins.casc.model.Mapping;
+import io.jenkins.plugins.casc.model.Sequence;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Stream;
 import org.apache.commons.lang.StringUtils;
-import org.apache.commons.text.StringSubstitutor;
-import org.apache.commons.text.TextStringBuilder;
 import org.apache.commons.text.lookup.StringLookup;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.DoNotUse;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
 
 /**
  * Resolves secret variables and converts escaped internal variables.
  */
 public class SecretSourceResolver {
-    private static final String enclosedBy = "${";
-    private static final String enclosedIn = "}";
-    private static final char escapedWith = '^';
+    private static final String enclosedBy = VariableInterpolator.PREFIX;
+    private static final char escapedWith = VariableInterpolator.ESCAPE;
     private static final String escapeEnclosedBy = escapedWith + enclosedBy;
 
     private static final Logger LOGGER = Logger.getLogger(SecretSourceResolver.class.getName());
 
-    private final StringSubstitutor nullSubstitutor;
-    private final StringSubstitutor substitutor;
+    private final VariableInterpolator interpolator;
+    private final ConfigurationContextStringLookup secretLookup;
+    private final CachedFileLookup fileLookup;
+    private final CachedFileLookup fileBase64Lookup;
+    private final JsonLookup jsonLookup = new JsonLookup();
+    private final Set<String> lookupPrefixes = new HashSet<>();
 
     public SecretSourceResolver(ConfigurationContext configurationContext) {
+        fileLookup = new CachedFileLookup(FileStringLookup.INSTANCE, configurationContext);
+        fileBase64Lookup = new CachedFileLookup(FileBase64Lookup.INSTANCE, configurationContext);
+
         // TODO update to use Map.of in JDK11+
         Map<String, org.apache.commons.text.lookup.StringLookup> map = new HashMap<>(8);
         map.put("base64", Base64Lookup.INSTANCE);
-        map.put("fileBase64", FileBase64Lookup.INSTANCE);
-        map.put("readFileBase64", FileBase64Lookup.INSTANCE);
-        map.put("file", FileStringLookup.INSTANCE);
-        map.put("readFile", FileStringLookup.INSTANCE);
+        map.put("fileBase64", fileBase64Lookup);
+        map.put("readFileBase64", fileBase64Lookup);
+        map.put("file", fileLookup);
+        map.put("readFile", fileLookup);
         map.put("sysProp", SystemPropertyLookup.INSTANCE);
         map.put("decodeBase64", DecodeBase64Lookup.INSTANCE);
-        map.put("json", JsonLookup.INSTANCE);
+        map.put("json", jsonLookup);
         map = Collections.unmodifiableMap(map);
+        for (String prefix : map.keySet()) {
+            lookupPrefixes.add(FixedInterpolatorStringLookup.toKey(prefix));
+        }
 
-        substitutor = new StringSubstitutor(new FixedInterpolatorStringLookup(
-                        map, new ConfigurationContextStringLookup(configurationContext)))
-                .setEscapeChar(escapedWith)
-                .setVariablePrefix(enclosedBy)
-                .setVariableSuffix(enclosedIn)
-                .setEnableSubstitutionInVariables(true)
-                .setPreserveEscapes(true);
-        nullSubstitutor = new StringSubstitutor(UnresolvedLookup.INSTANCE)
-                .setEscapeChar(escapedWith)
-                .setVariablePrefix(enclosedBy)
-                .setVariableSuffix(enclosedIn);
+        secretLookup = new ConfigurationContextStringLookup(configurationContext);
+        interpolator = new VariableInterpolator(
+                new FixedInterpolatorStringLookup(map, secretLookup), UnresolvedLookup.INSTANCE);
     }
 
     /**
@@ -103,13 +123,140 @@ public class SecretSourceResolver {
      * String. Secrets are defined as anything enclosed by '${}'
      */
     public String resolve(String toInterpolate) {
-        if (StringUtils.isBlank(toInterpolate) || !toInterpolate.contains(enclosedBy)) {
+        if (toInterpolate == null || !toInterpolate.contains(VariableInterpolator.PREFIX)) {
             return toInterpolate;
         }
-        final TextStringBuilder buf = new TextStringBuilder(toInterpolate);
-        substitutor.replaceIn(buf);
-        nullSubstitutor.replaceIn(buf);
-        return buf.toString();
+        return interpolator.interpolate(toInterpolate);
+    }
+
+    /**
+     * Caches the values revealed by {@link SecretSource}s, unresolved keys included, until the returned scope is
+     * closed. This is meant to span a single apply, so a key referenced many times only queries the sources once.
+     * File lookups are cached as well, as long as the file keeps its size and modification time, and so are the
+     * JSON documents parsed by the {@code json} lookup.
+     * Scopes can be nested, the cache is wiped when the outermost one is closed. Cached values are never persisted.
+     *
+     * @return scope to close once the apply is over
+     */
+    @Restricted(NoExternalUse.class)
+    public CacheScope cacheSecrets() {
+        secretLookup.revealed.open();
+        fileLookup.contents.open();
+        fileBase64Lookup.contents.open();
+        jsonLookup.parsed.open();
+        return () -> {
+            jsonLookup.parsed.close();
+            fileBase64Lookup.contents.close();
+            fileLookup.contents.close();
+            secretLookup.revealed.close();
+        };
+    }
+
+    /**
+     * Reveals upfront the secrets referenced in a configuration model, so they are served from the cache afterwards.
+     * All {@link SecretSource}s are queried concurrently, each one once through {@link SecretSource#revealAll(Set)}.
+     * This does nothing unless a {@link #cacheSecrets() cache scope} is open.
+     * Sources failing here are simply queried again the regular way, which reports the error,
+     * but a source missing its {@link SecretSource#getTimeout() deadline} fails right away.
+     *
+     * @param config configuration model to scan for variable references
+     */
+    @Restricted(NoExternalUse.class)
+    public void prefetch(@NonNull CNode config) {
+        final Set<String> keys = new HashSet<>();
+        collectSecretReferences(config, keys);
+        secretLookup.prefetch(keys);
+    }
+
+    private void collectSecretReferences(CNode node, Set<String> keys) {
+        switch (node.getType()) {
+            case MAPPING:
+                for (CNode value : ((Mapping) node).values()) {
+                    collectSecretReferences(value, keys);
+                }
+                break;
+            case SEQUENCE:
+                for (CNode value : (Sequence) node) {
+                    collectSecretReferences(value, keys);
+                }
+                break;
+            case SCALAR:
+            default:
+                collectSecretReferences(node.toString(), keys);
+        }
+    }
+
+    /**
+     * Collects the keys which would be looked up in {@link SecretSource}s when resolving the given string:
+     * variable names stripped from their default value, nested ones included.
+     * Variables handled by a lookup prefix, like <code>${base64:...}</code>, are skipped.
+     */
+    void collectSecretReferences(String value, Set<String> keys) {
+        int start = value.indexOf(enclosedBy);
+        while (start >= 0) {
+            final int end = VariableInterpolator.findVariableEnd(value, start + enclosedBy.length());
+            if (end < 0) {
+                return;
+            }
+            if (start == 0 || value.charAt(start - 1) != escapedWith) {
+                final String variable = value.substring(start + enclosedBy.length(), end);
+                final int defaultValue = variable.indexOf(VariableInterpolator.VALUE_DELIMITER);
+                final String name = defaultValue >= 0 ? variable.substring(0, defaultValue) : variable;
+                if (StringUtils.isNotBlank(name) && !name.contains(enclosedBy) && !hasLookupPrefix(name)) {
+                    keys.add(name);
+                }
+                collectSecretReferences(variable, keys);
+            }
+            start = value.indexOf(enclosedBy, end + 1);
+        }
+    }
+
+    private boolean hasLookupPrefix(String name) {
+        final int prefix = name.indexOf(':');
+        return prefix >= 0 && lookupPrefixes.contains(FixedInterpolatorStringLookup.toKey(name.substring(0, prefix)));
+    }
+
+    /**
+     * Scope of the secret cache, see {@link #cacheSecrets()}.
+     */
+    @Restricted(NoExternalUse.class)
+    @FunctionalInterface
+    public interface CacheScope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Map living between the opening and the closing of the outermost {@link CacheScope}.
+     */
+    static final class ScopedCache<K, V> {
+
+        @CheckForNull
+        private volatile Map<K, V> map;
+
+        private int scopes;
+
+        /**
+         * @return the cache, or {@code null} when no scope is open
+         */
+        @CheckForNull
+        Map<K, V> get() {
+            return map;
+        }
+
+        synchronized void open() {
+            if (scopes++ == 0) {
+                map = new ConcurrentHashMap<>();
+            }
+        }
+
+        synchronized void close() {
+            if (scopes > 0 && --scopes == 0) {
+                final Map<K, V> cache = map;
+                map = null;
+                cache.clear();
+            }
+        }
     }
 
     static class UnresolvedLookup implements StringLookup {
@@ -124,6 +271,7 @@ public class SecretSourceResolver {
                     Level.WARNING,
                     String.format(
                             "Configuration import: Found unresolved variable '%s'. Will default to empty string", key));
+            SecretResolutionMetrics.get().unresolved();
             return "";
         }
     }
@@ -132,17 +280,153 @@ public class SecretSourceResolver {
 
         private final ConfigurationContext context;
 
+        /**
+         * Revealed values by key while a cache scope is open.
+         */
+        private final ScopedCache<String, Optional<String>> revealed = new ScopedCache<>();
+
         private ConfigurationContextStringLookup(ConfigurationContext context) {
             this.context = context;
         }
 
         @Override
         public String lookup(String key) {
+            final Map<String, Optional<String>> cache = revealed.get();
+            if (cache == null) {
+                return reveal(key).orElse(null);
+            }
+            Optional<String> value = cache.get(key);
+            if (value == null) {
+                value = reveal(key);
+                cache.put(key, value);
+            }
+            return value.orElse(null);
+        }
+
+        private Optional<String> reveal(String key) {
             return context.getSecretSources().stream()
-                    .map(source -> unchecked(() -> source.reveal(key)).apply())
+                    .map(source -> unchecked(() -> reveal(source, key)).apply())
                     .flatMap(o -> o.map(Stream::of).orElseGet(Stream::empty))
-                    .findFirst()
-                    .orElse(null);
+                    .findFirst();
+        }
+
+        private static Optional<String> reveal(SecretSource source, String key) throws IOException {
+            final SecretResolutionMetrics.Stats stats = SecretResolutionMetrics.get().source(source);
+            final long start = System.nanoTime();
+            try {
+                final Optional<String> value = await(source, source.revealAsync(key), key, start);
+                stats.record(value.isPresent(), System.nanoTime() - start);
+                return value;
+            } catch (IOException | RuntimeException e) {
+                stats.failed(System.nanoTime() - start);
+                throw e;
+            }
+        }
+
+        void prefetch(Set<String> keys) {
+            final Map<String, Optional<String>> cache = revealed.get();
+            final List<SecretSource> sources = context.getSecretSources();
+            if (cache == null || sources.isEmpty()) {
+                return;
+            }
+            keys.removeAll(cache.keySet());
+            if (keys.isEmpty()) {
+                return;
+            }
+
+            final Set<String> secrets = Collections.unmodifiableSet(keys);
+            final List<CompletableFuture<Map<String, String>>> futures = new ArrayList<>(sources.size());
+            final long start = System.nanoTime();
+            for (SecretSource source : sources) {
+                futures.add(source.revealAllAsync(secrets));
+            }
+            final List<Map<String, String>> results = new ArrayList<>(sources.size());
+            try {
+                for (int i = 0; i < futures.size(); i++) {
+                    final SecretSource source = sources.get(i);
+                    final SecretResolutionMetrics.Stats stats = SecretResolutionMetrics.get().source(source);
+                    try {
+                        // sources run concurrently, so their deadlines all count from the start
+                        final Map<String, String> result = await(source, futures.get(i), null, start);
+                        stats.record(result.size(), secrets.size() - result.size(), System.nanoTime() - start);
+                        results.add(result);
+                    } catch (IOException e) {
+                        stats.failed(System.nanoTime() - start);
+                        LOGGER.log(Level.FINE, "Failed to prefetch secrets from " + source.getClass().getName(), e);
+                        // this source and the following ones are queried again on lookup
+                        break;
+                    } catch (RuntimeException e) {
+                        stats.failed(System.nanoTime() - start);
+                        throw e;
+                    }
+                }
+            } finally {
+                // nobody waits for the following sources any more
+                for (CompletableFuture<Map<String, String>> future : futures) {
+                    if (!future.isDone()) {
+                        future.cancel(true);
+                    }
+                }
+            }
+            for (String key : secrets) {
+                Optional<String> value = Optional.empty();
+                for (Map<String, String> result : results) {
+                    final String v = result.get(key);
+                    if (v != null) {
+                        value = Optional.of(v);
+                        break;
+                    }
+                }
+                // keys missed by the revealed sources can't be told apart from a failed source
+                if (value.isPresent() || results.size() == sources.size()) {
+                    cache.putIfAbsent(key, value);
+                }
+            }
+        }
+
+        /**
+         * Waits for a source to reveal secrets, up to its {@link SecretSource#getTimeout() deadline}.
+         *
+         * @param start {@link System#nanoTime()} the deadline counts from
+         * @throws ConfiguratorException if the deadline expired
+         * @throws IOException if the source failed, as per {@link SecretSource#reveal(String)}
+         */
+        private static <V> V await(
+                SecretSource source, CompletableFuture<V> future, @CheckForNull String key, long start)
+                throws IOException {
+            final Duration timeout = source.getTimeout();
+            try {
+                if (timeout.isZero() || timeout.isNegative()) {
+                    return future.get();
+                }
+                final long left = timeout.toNanos() - (System.nanoTime() - start);
+                return future.get(Math.max(left, 0), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                throw new ConfiguratorException(String.format(
+                        "%s did not reveal %s within %d seconds. The deadline can be changed with the %s.timeout "
+                                + "system property or for all sources with %s",
+                        source.getClass().getName(),
+                        key != null ? "'" + key + "'" : "secrets",
+                        timeout.getSeconds(),
+                        source.getClass().getName(),
+                        SecretSource.CASC_SECRET_SOURCE_TIMEOUT_PROPERTY));
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IOException(cause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for " + source.getClass().getName(), e);
+            }
         }
     }
 
@@ -185,6 +469,52 @@ public class SecretSourceResolver {
         }
     }
 
+    /**
+     * Serves a file lookup from memory while a {@link CacheScope} is open, keyed by the file path, size and
+     * modification time. Files larger than {@link ConfigurationContext#getFileCacheMaxSize()} are never retained.
+     */
+    static class CachedFileLookup implements StringLookup {
+
+        private final StringLookup delegate;
+        private final ConfigurationContext context;
+        private final ScopedCache<List<Object>, String> contents = new ScopedCache<>();
+
+        CachedFileLookup(StringLookup delegate, ConfigurationContext context) {
+            this.delegate = delegate;
+            this.context = context;
+        }
+
+        @Override
+        public String lookup(@NonNull final String key) {
+            final Map<List<Object>, String> cache = contents.get();
+            if (cache == null) {
+                return delegate.lookup(key);
+            }
+            final Path path;
+            final BasicFileAttributes attributes;
+            try {
+                path = Paths.get(key).toAbsolutePath().normalize();
+                attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            } catch (IOException | InvalidPathException e) {
+                // let the delegate report it
+                return delegate.lookup(key);
+            }
+            if (attributes.size() > context.getFileCacheMaxSize()) {
+                return delegate.lookup(key);
+            }
+
+            final List<Object> cacheKey = Arrays.asList(path, attributes.size(), attributes.lastModifiedTime());
+            String value = cache.get(cacheKey);
+            if (value == null) {
+                value = delegate.lookup(key);
+                if (value != null) {
+                    cache.put(cacheKey, value);
+                }
+            }
+            return value;
+        }
+    }
+
     static class Base64Lookup implements StringLookup {
 
         static final Base64Lookup INSTANCE = new Base64Lookup();
@@ -227,7 +557,10 @@ public class SecretSourceResolver {
 
     static class JsonLookup implements StringLookup {
 
-        static final JsonLookup INSTANCE = new JsonLookup();
+        /**
+         * Parsed JSON documents by content digest, while a cache scope is open.
+         */
+        private final ScopedCache<String, JSONObject> parsed = new ScopedCache<>();
 
         private JsonLookup() {}
 
@@ -236,9 +569,12 @@ public class SecretSourceResolver {
             final String[] components = key.split(":", 2);
             final String jsonFieldName = components[0];
             final String json = components[1];
-            final JSONObject root = new JSONObject(json);
 
-            final String output = root.optString(jsonFieldName, null);
+            final Map<String, JSONObject> cache = parsed.get();
+            final String output = cache == null
+                    ? extractField(json, jsonFieldName)
+                    : cache.computeIfAbsent(digest(json), k -> new JSONObject(json))
+                            .optString(jsonFieldName, null);
             if (output == null) {
                 LOGGER.log(
                         Level.WARNING,
@@ -249,5 +585,55 @@ public class SecretSourceResolver {
             }
             return output;
         }
+
+        /**
+         * Reads the members of a JSON object until the requested one, so a single lookup does not build the whole
+         * document.
+         *
+         * @return the field value as per {@link JSONObject#optString(String, String)}
+         */
+        @CheckForNull
+        static String extractField(@NonNull String json, @NonNull String field) {
+            final JSONTokener tokener = new JSONTokener(json);
+            if (tokener.nextClean() != '{') {
+                throw tokener.syntaxError("A JSONObject text must begin with '{'");
+            }
+            while (true) {
+                switch (tokener.nextClean()) {
+                    case 0:
+                        throw tokener.syntaxError("A JSONObject text must end with '}'");
+                    case '}':
+                        return null;
+                    default:
+                        tokener.back();
+                }
+                final String name = tokener.nextValue().toString();
+                if (tokener.nextClean() != ':') {
+                    throw tokener.syntaxError("Expected a ':' after a key");
+                }
+                final Object value = tokener.nextValue();
+                if (name.equals(field)) {
+                    return JSONObject.NULL.equals(value) ? null : value.toString();
+                }
+                switch (tokener.nextClean()) {
+                    case ';':
+                    case ',':
+                        break;
+                    case '}':
+                        return null;
+                    default:
+                        throw tokener.syntaxError("Expected a ',' or '}'");
+                }
+            }
+        }
+
+        private static String digest(String json) {
+            try {
+                final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                return Base64.getEncoder().encodeToString(digest.digest(json.getBytes(StandardCharsets.UTF_8)));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
     }
 }
@@ -0,0 +1,132 @@
+package io.jenkins.plugins.casc;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.apache.commons.text.lookup.StringLookup;
+
+/**
+ * Single pass interpolation of <code>${prefix:key:-default}</code> variables, as used by {@link SecretSourceResolver}.
+ * <p>
+ * Variables can be nested in names and default values, and resolved values are interpolated in turn.
+ * A variable is escaped by a leading <code>^</code>, which is dropped from the output.
+ * Variables that cannot be resolved and have no default value are replaced by the unresolved lookup result,
+ * except inside a variable name where they are left as is for the enclosing lookup to handle.
+ * <p>
+ * Strings without any variable are returned as is, without copying.
+ */
+final class VariableInterpolator {
+
+    static final String PREFIX = "${";
+    static final char SUFFIX = '}';
+    static final char ESCAPE = '^';
+    static final String VALUE_DELIMITER = ":-";
+
+    private final StringLookup lookup;
+    private final StringLookup unresolved;
+
+    /**
+     * @param lookup resolves variable names, returns {@code null} when a variable is unknown
+     * @param unresolved provides the replacement for unknown variables without default value
+     */
+    VariableInterpolator(@NonNull StringLookup lookup, @NonNull StringLookup unresolved) {
+        this.lookup = lookup;
+        this.unresolved = unresolved;
+    }
+
+    String interpolate(String value) {
+        return value.contains(PREFIX) ? interpolate(value, true, null) : value;
+    }
+
+    /**
+     * @param top {@code false} while interpolating a variable name, where escapes and unresolved variables are kept
+     * @param resolving names of the variables being resolved, to detect cycles, {@code null} until one is resolved
+     */
+    private String interpolate(String value, boolean top, @CheckForNull Deque<String> resolving) {
+        int start = value.indexOf(PREFIX);
+        if (start < 0) {
+            return value;
+        }
+
+        StringBuilder out = null;
+        int copied = 0;
+        while (start >= 0) {
+            if (start > 0 && value.charAt(start - 1) == ESCAPE) {
+                if (top) {
+                    out = append(out, value, copied, start - 1);
+                    copied = start;
+                }
+                start = value.indexOf(PREFIX, start + PREFIX.length());
+                continue;
+            }
+
+            final int end = findVariableEnd(value, start + PREFIX.length());
+            if (end < 0) {
+                // unterminated variable, kept as is
+                break;
+            }
+
+            final String expression = interpolate(value.substring(start + PREFIX.length(), end), false, resolving);
+            final int delimiter = expression.indexOf(VALUE_DELIMITER);
+            final String name = delimiter >= 0 ? expression.substring(0, delimiter) : expression;
+
+            if (resolving != null && resolving.contains(name)) {
+                throw new IllegalStateException("Infinite loop in property interpolation of " + name);
+            }
+            String resolved = lookup.lookup(name);
+            if (resolved == null && delimiter >= 0) {
+                resolved = expression.substring(delimiter + VALUE_DELIMITER.length());
+            }
+            if (resolved != null) {
+                if (resolving == null) {
+                    resolving = new ArrayDeque<>();
+                }
+                resolving.push(name);
+                try {
+                    resolved = interpolate(resolved, top, resolving);
+                } finally {
+                    resolving.pop();
+                }
+            } else if (top) {
+                resolved = unresolved.lookup(name);
+            }
+
+            if (resolved != null) {
+                out = append(out, value, copied, start).append(resolved);
+                copied = end + 1;
+            }
+            start = value.indexOf(PREFIX, end + 1);
+        }
+
+        if (out == null) {
+            return value;
+        }
+        return out.append(value, copied, value.length()).toString();
+    }
+
+    private static StringBuilder append(StringBuilder out, String value, int from, int to) {
+        if (out == null) {
+            out = new StringBuilder(value.length() + 16);
+        }
+        return out.append(value, from, to);
+    }
+
+    /**
+     * Finds the suffix closing the variable whose name starts at {@code from}, nested variables included.
+     *
+     * @return index of the closing suffix, or -1 if the variable isn't terminated
+     */
+    static int findVariableEnd(String value, int from) {
+        int depth = 1;
+        for (int i = from; i < value.length(); i++) {
+            if (value.startsWith(PREFIX, i)) {
+                depth++;
+                i++;
+            } else if (value.charAt(i) == SUFFIX && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
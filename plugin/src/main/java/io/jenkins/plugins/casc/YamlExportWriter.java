@@ -0,0 +1,297 @@
+package io.jenkins.plugins.casc;
+
+import static org.yaml.snakeyaml.DumperOptions.FlowStyle.BLOCK;
+import static org.yaml.snakeyaml.DumperOptions.ScalarStyle.DOUBLE_QUOTED;
+import static org.yaml.snakeyaml.DumperOptions.ScalarStyle.LITERAL;
+import static org.yaml.snakeyaml.DumperOptions.ScalarStyle.PLAIN;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.jenkins.plugins.casc.model.CNode;
+import io.jenkins.plugins.casc.model.Mapping;
+import io.jenkins.plugins.casc.model.Scalar;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.emitter.Emitter;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.DocumentEndEvent;
+import org.yaml.snakeyaml.events.DocumentStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.ImplicitTuple;
+import org.yaml.snakeyaml.events.MappingEndEvent;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.SequenceEndEvent;
+import org.yaml.snakeyaml.events.SequenceStartEvent;
+import org.yaml.snakeyaml.events.StreamEndEvent;
+import org.yaml.snakeyaml.events.StreamStartEvent;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+/**
+ * Writes the exported configuration as YAML events.
+ * <p>
+ * The output is the same as serializing the {@link ConfigurationAsCode#toYaml(CNode)} tree of each root element:
+ * scalar styles and tags follow the {@link Scalar} format.
+ * <p>
+ * With aliases allowed, mappings and sequences showing up more than once within a root element, such as agents or
+ * clouds sharing the same settings, are written once with an anchor and referred to with aliases afterwards.
+ * Identical subtrees are found by numbering each distinct shape, bottom up, so that comparing two nodes only compares
+ * the numbers of their children. Shapes ignore what isn't written, such as empty values, and the values of a
+ * {@link PagedSequence}, only described while being written, aren't considered.
+ */
+final class YamlExportWriter extends ExportWriter implements ExportWriter.Aliasing {
+
+    private final Writer writer;
+    private final Emitter emitter;
+    private final Resolver resolver = new Resolver();
+
+    /**
+     * Most aliases written in the document, so that loading it doesn't exceed
+     * {@link ConfigurationContext#getYamlMaxAliasesForCollections()}.
+     */
+    private final int maxAliases;
+
+    private int aliases;
+    private int lastAnchor;
+
+    /**
+     * Number of each distinct shape of the current root element, keyed by the shape.
+     */
+    private final Map<List<Object>, Integer> shapes = new HashMap<>();
+
+    /**
+     * Shape number of each written node of the current root element.
+     */
+    private final Map<CNode, Integer> ids = new IdentityHashMap<>();
+
+    /**
+     * Occurrences of each shape of the current root element, not counting those nested in a repeated node.
+     */
+    private final Map<Integer, Integer> counts = new HashMap<>();
+
+    private final Map<Integer, String> anchors = new HashMap<>();
+
+    YamlExportWriter(@NonNull Writer writer) {
+        this(writer, 0);
+    }
+
+    /**
+     * @param maxAliases most aliases to write, none if not greater than zero
+     */
+    YamlExportWriter(@NonNull Writer writer, int maxAliases) {
+        this.writer = writer;
+        this.emitter = new Emitter(writer, options());
+        this.maxAliases = maxAliases;
+    }
+
+    static DumperOptions options() {
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(BLOCK);
+        options.setDefaultScalarStyle(PLAIN);
+        options.setSplitLines(true);
+        options.setPrettyFlow(true);
+        return options;
+    }
+
+    @Override
+    void start() throws IOException {
+        emitter.emit(new StreamStartEvent(null, null));
+        emitter.emit(new DocumentStartEvent(null, null, false, null, null));
+        emitter.emit(new MappingStartEvent(null, null, true, null, null, BLOCK));
+    }
+
+    @Override
+    void writeRoot(@NonNull String name, @CheckForNull CNode config) throws IOException {
+        if (maxAliases > 0 && config != null) {
+            // anchors are only looked for within a root element, which is the only one kept in memory
+            shapes.clear();
+            ids.clear();
+            counts.clear();
+            anchors.clear();
+            shapeOf(config);
+            count(config);
+        }
+        super.writeRoot(name, config);
+    }
+
+    @Override
+    void end() throws IOException {
+        emitter.emit(new MappingEndEvent(null, null));
+        emitter.emit(new DocumentEndEvent(null, null, false));
+        emitter.emit(new StreamEndEvent(null, null));
+    }
+
+    @Override
+    void mappingStart(@CheckForNull String anchor) throws IOException {
+        emitter.emit(new MappingStartEvent(anchor, null, true, null, null, BLOCK));
+    }
+
+    @Override
+    void mappingEnd() throws IOException {
+        emitter.emit(new MappingEndEvent(null, null));
+    }
+
+    @Override
+    void sequenceStart(@CheckForNull String anchor) throws IOException {
+        emitter.emit(new SequenceStartEvent(anchor, null, true, null, null, BLOCK));
+    }
+
+    @Override
+    void sequenceEnd() throws IOException {
+        emitter.emit(new SequenceEndEvent(null, null));
+    }
+
+    @Override
+    void key(@NonNull String name) throws IOException {
+        emitter.emit(scalar(Tag.STR, name, PLAIN));
+    }
+
+    @Override
+    void scalar(@NonNull Scalar scalar) throws IOException {
+        emitter.emit(scalar(tagOf(scalar.getFormat()), scalar.getValue(), styleOf(scalar)));
+    }
+
+    @Override
+    public String aliasOf(@NonNull CNode node) {
+        final String anchor = anchors.get(ids.get(node));
+        if (anchor == null || aliases >= maxAliases) {
+            return null;
+        }
+        aliases++;
+        return anchor;
+    }
+
+    @Override
+    public String anchorOf(@NonNull CNode node) {
+        final Integer id = ids.get(node);
+        if (id == null || counts.getOrDefault(id, 0) < 2 || aliases >= maxAliases) {
+            return null;
+        }
+        final String anchor = String.format("id%03d", ++lastAnchor);
+        anchors.put(id, anchor);
+        return anchor;
+    }
+
+    @Override
+    public void alias(@NonNull String anchor) throws IOException {
+        emitter.emit(new AliasEvent(anchor, null, null));
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * Numbers the shape of a node and of the nodes below it.
+     *
+     * @return shape number, {@code -1} if nothing would be written for the node
+     */
+    private int shapeOf(@CheckForNull CNode node) throws ConfiguratorException {
+        if (node == null || node instanceof PagedSequence) {
+            return -1;
+        }
+        final List<Object> shape = new ArrayList<>();
+        switch (node.getType()) {
+            case MAPPING:
+                final Mapping mapping = node.asMapping();
+                final List<String> keys = new ArrayList<>(mapping.keySet());
+                keys.sort(null);
+                shape.add(CNode.Type.MAPPING);
+                for (String key : keys) {
+                    final int child = shapeOf(mapping.get(key));
+                    if (child >= 0) {
+                        shape.add(key);
+                        shape.add(child);
+                    }
+                }
+                break;
+            case SEQUENCE:
+                shape.add(CNode.Type.SEQUENCE);
+                for (CNode item : node.asSequence()) {
+                    final int child = shapeOf(item);
+                    if (child >= 0) {
+                        shape.add(child);
+                    }
+                }
+                break;
+            case SCALAR:
+            default:
+                final Scalar scalar = node.asScalar();
+                if (scalar.getValue() == null || scalar.getValue().isEmpty()) {
+                    return -1;
+                }
+                shape.add(CNode.Type.SCALAR);
+                shape.add(scalar.getFormat());
+                shape.add(scalar.isRaw());
+                shape.add(scalar.getValue());
+        }
+        if (shape.size() == 1) {
+            return -1;
+        }
+        final int id = shapes.computeIfAbsent(shape, k -> shapes.size());
+        ids.put(node, id);
+        return id;
+    }
+
+    /**
+     * Counts the occurrences of mappings and sequences, without looking into the repeated ones, whose nested nodes
+     * are only written once.
+     */
+    private void count(CNode node) throws ConfiguratorException {
+        final Integer id = ids.get(node);
+        if (id == null || node.getType() == CNode.Type.SCALAR || counts.merge(id, 1, Integer::sum) > 1) {
+            return;
+        }
+        if (node.getType() == CNode.Type.MAPPING) {
+            for (CNode child : node.asMapping().values()) {
+                count(child);
+            }
+        } else {
+            for (CNode item : node.asSequence()) {
+                count(item);
+            }
+        }
+    }
+
+    /**
+     * Same implicit tag resolution as snakeyaml's serializer.
+     */
+    private Event scalar(Tag tag, String value, DumperOptions.ScalarStyle style) {
+        final Tag detected = resolver.resolve(NodeId.scalar, value, true);
+        final Tag defaultTag = resolver.resolve(NodeId.scalar, value, false);
+        final ImplicitTuple implicit = new ImplicitTuple(tag.equals(detected), tag.equals(defaultTag));
+        return new ScalarEvent(null, tag.getValue(), implicit, value, null, null, style);
+    }
+
+    static DumperOptions.ScalarStyle styleOf(Scalar scalar) {
+        if (scalar.getFormat().equals(Scalar.Format.MULTILINESTRING) && !scalar.isRaw()) {
+            return LITERAL;
+        } else if (scalar.isRaw()) {
+            return PLAIN;
+        } else {
+            return DOUBLE_QUOTED;
+        }
+    }
+
+    static Tag tagOf(Scalar.Format format) {
+        switch (format) {
+            case NUMBER:
+                return Tag.INT;
+            case BOOLEAN:
+                return Tag.BOOL;
+            case STRING:
+            case MULTILINESTRING:
+            default:
+                return Tag.STR;
+        }
+    }
+}
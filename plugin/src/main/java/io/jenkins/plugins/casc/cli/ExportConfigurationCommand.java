@@ -3,9 +3,12 @@ package io.jenkins.plugins.casc.cli;
 import hudson.Extension;
 import hudson.cli.CLICommand;
 import io.jenkins.plugins.casc.ConfigurationAsCode;
+import io.jenkins.plugins.casc.ExportFormat;
 import jenkins.model.Jenkins;
 import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.NoExternalUse;
+import org.kohsuke.args4j.Argument;
+import org.kohsuke.args4j.Option;
 
 /**
  * @author <a href="mailto:nicolas.deloof@gmail.com">Nicolas De Loof</a>
@@ -14,6 +17,14 @@ import org.kohsuke.accmod.restrictions.NoExternalUse;
 @Restricted(NoExternalUse.class)
 public class ExportConfigurationCommand extends CLICommand {
 
+    @Argument(
+            metaVar = "PATH",
+            usage = "Only export this root element or attribute, such as jenkins.nodes or unclassified.location")
+    public String path;
+
+    @Option(name = "--format", usage = "Export format: YAML (default), JSON or BINARY")
+    public ExportFormat format = ExportFormat.YAML;
+
     @Override
     public String getShortDescription() {
         return "Export jenkins configuration as YAML";
@@ -26,7 +37,11 @@ public class ExportConfigurationCommand extends CLICommand {
             return -1;
         }
 
-        ConfigurationAsCode.get().export(stdout);
+        if (path == null && format == ExportFormat.YAML) {
+            ConfigurationAsCode.get().writeCachedExport(stdout);
+        } else {
+            ConfigurationAsCode.get().export(stdout, path, format);
+        }
         return 0;
     }
 }
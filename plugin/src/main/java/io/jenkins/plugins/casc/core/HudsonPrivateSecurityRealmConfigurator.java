@@ -12,7 +12,9 @@ import io.jenkins.plugins.casc.impl.attributes.MultivaluedAttribute;
 import io.jenkins.plugins.casc.impl.configurators.DataBoundConfigurator;
 import io.jenkins.plugins.casc.model.CNode;
 import java.io.IOException;
+import java.util.AbstractCollection;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -58,25 +60,41 @@ public class HudsonPrivateSecurityRealmConfigurator extends DataBoundConfigurato
         return null;
     }
 
+    /**
+     * Users are converted as they are iterated, so that a paged export doesn't hold all of them at once.
+     */
     private static Collection<UserWithPassword> getter(HudsonPrivateSecurityRealm target) {
-        return target.getAllUsers().stream()
-                .map(u -> {
-                    UserWithPassword user = new UserWithPassword(u.getId(), null);
-                    user.setName(u.getFullName());
-                    user.setDescription(u.getDescription());
-                    List<UserProperty> properties = u.getAllProperties().stream()
-                            .filter(
-                                    userProperty -> !userProperty
-                                            .getClass()
-                                            .getName()
-                                            .equals(
-                                                    "com.cloudbees.plugins.credentials.UserCredentialsProvider$UserCredentialsProperty"))
-                            .collect(Collectors.toList());
-                    user.setProperties(properties);
-
-                    return user;
-                })
+        final List<User> users = target.getAllUsers();
+        return new AbstractCollection<UserWithPassword>() {
+            @Override
+            public Iterator<UserWithPassword> iterator() {
+                return users.stream()
+                        .map(HudsonPrivateSecurityRealmConfigurator::toUserWithPassword)
+                        .iterator();
+            }
+
+            @Override
+            public int size() {
+                return users.size();
+            }
+        };
+    }
+
+    private static UserWithPassword toUserWithPassword(User u) {
+        UserWithPassword user = new UserWithPassword(u.getId(), null);
+        user.setName(u.getFullName());
+        user.setDescription(u.getDescription());
+        List<UserProperty> properties = u.getAllProperties().stream()
+                .filter(
+                        userProperty -> !userProperty
+                                .getClass()
+                                .getName()
+                                .equals(
+                                        "com.cloudbees.plugins.credentials.UserCredentialsProvider$UserCredentialsProperty"))
                 .collect(Collectors.toList());
+        user.setProperties(properties);
+
+        return user;
     }
 
     private static void setter(HudsonPrivateSecurityRealm target, Collection<UserWithPassword> value)
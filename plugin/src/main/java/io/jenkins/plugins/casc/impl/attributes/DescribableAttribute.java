@@ -9,15 +9,26 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import jenkins.model.Jenkins;
 import org.jenkinsci.Symbol;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
 
 /**
  * @author <a href="mailto:nicolas.deloof@gmail.com">Nicolas De Loof</a>
  */
 public class DescribableAttribute<Owner, Type> extends Attribute<Owner, Type> {
 
+    /**
+     * Symbols only depend on the descriptor class, the described class and the extension point,
+     * so they are computed once and shared by all configurators. Dropped along with the descriptor caches of
+     * {@link io.jenkins.plugins.casc.impl.configurators.HeteroDescribableConfigurator} when extensions change.
+     */
+    private static final Map<List<Class>, List<String>> SYMBOLS = new ConcurrentHashMap<>();
+
     public DescribableAttribute(String name, Class<? extends Describable> type) {
         super(name, type);
     }
@@ -30,6 +41,14 @@ public class DescribableAttribute<Owner, Type> extends Attribute<Owner, Type> {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Forgets the computed symbols, for instance when plugins bring new descriptors.
+     */
+    @Restricted(NoExternalUse.class)
+    public static void invalidateSymbols() {
+        SYMBOLS.clear();
+    }
+
     /**
      * Retrieve the preferred symbol for this descriptor
      */
@@ -44,34 +63,42 @@ public class DescribableAttribute<Owner, Type> extends Attribute<Owner, Type> {
     public static List<String> getSymbols(Descriptor d, Class extensionPoint, Class target) {
 
         if (d != null) {
-            List<String> symbols = new ArrayList<>();
-            // explicit @Symbol annotation on descriptor
-            // first is the preferred one as by Symbol contract
-            // "The first one is used as the primary identifier for reverse-mapping."
-            Symbol s = d.getClass().getAnnotation(Symbol.class);
-            if (s != null) {
-                symbols.addAll(Arrays.asList(s.value()));
-            }
+            final Class descriptorClass = d.getClass();
+            final Class klass = d.getKlass().toJavaClass();
+            return SYMBOLS.computeIfAbsent(
+                    Arrays.asList(descriptorClass, klass, extensionPoint),
+                    k -> Collections.unmodifiableList(computeSymbols(descriptorClass, klass, extensionPoint)));
+        }
 
-            // extension type Foo is implemented as SomeFoo. => "some"
-            final String ext = extensionPoint.getSimpleName();
-            final String cn = d.getKlass().toJavaClass().getSimpleName();
-            if (cn.endsWith(ext)) {
-                symbols.add(normalize(cn.substring(0, cn.length() - ext.length())));
-            }
+        // Fall back to simple class name
+        return Collections.singletonList(normalize(target.getSimpleName()));
+    }
 
-            // extension type Foo is implemented as SomeFooImpl. => "some"
-            final String in = extensionPoint.getSimpleName() + "Impl";
-            if (cn.endsWith(in)) {
-                symbols.add(normalize(cn.substring(0, cn.length() - in.length())));
-            }
+    private static List<String> computeSymbols(Class<?> descriptorClass, Class<?> klass, Class<?> extensionPoint) {
+        List<String> symbols = new ArrayList<>();
+        // explicit @Symbol annotation on descriptor
+        // first is the preferred one as by Symbol contract
+        // "The first one is used as the primary identifier for reverse-mapping."
+        Symbol s = descriptorClass.getAnnotation(Symbol.class);
+        if (s != null) {
+            symbols.addAll(Arrays.asList(s.value()));
+        }
 
-            // Fall back to simple class name
-            symbols.add(normalize(cn));
-            return symbols;
+        // extension type Foo is implemented as SomeFoo. => "some"
+        final String ext = extensionPoint.getSimpleName();
+        final String cn = klass.getSimpleName();
+        if (cn.endsWith(ext)) {
+            symbols.add(normalize(cn.substring(0, cn.length() - ext.length())));
+        }
+
+        // extension type Foo is implemented as SomeFooImpl. => "some"
+        final String in = extensionPoint.getSimpleName() + "Impl";
+        if (cn.endsWith(in)) {
+            symbols.add(normalize(cn.substring(0, cn.length() - in.length())));
         }
 
         // Fall back to simple class name
-        return Collections.singletonList(normalize(target.getSimpleName()));
+        symbols.add(normalize(cn));
+        return symbols;
     }
 }
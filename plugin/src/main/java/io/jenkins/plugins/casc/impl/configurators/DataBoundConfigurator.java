@@ -20,9 +20,12 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.CheckForNull;
@@ -30,6 +33,8 @@ import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
 import javax.annotation.PostConstruct;
 import jenkins.model.Jenkins;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
 import org.kohsuke.stapler.ClassDescriptor;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.Stapler;
@@ -47,6 +52,28 @@ public class DataBoundConfigurator<T> extends BaseConfigurator<T> {
 
     private final Class<T> target;
 
+    /**
+     * Descriptor-derived metadata, computed once per configurator on first use.
+     * Configurators are short-lived in {@link io.jenkins.plugins.casc.impl.DefaultConfiguratorRegistry}.
+     */
+    private transient volatile Class implementedAPI;
+
+    private transient volatile List<String> names;
+
+    /**
+     * Classes whose {@link DataBoundConstructor} sets the same defaults whatever its arguments, as listed in the
+     * comma separated {@code io.jenkins.plugins.casc.impl.configurators.DataBoundConfigurator.constantDefaults} system
+     * property. Their objects are compared with a snapshot of those defaults, rather than with a throwaway reference
+     * built for each object. Other classes always get a reference, as nothing proves their defaults are constant.
+     */
+    private static volatile Set<String> constantDefaults = readConstantDefaults();
+
+    /**
+     * Attribute values of a reference instance built from default constructor arguments, for {@link #constantDefaults}
+     * classes.
+     */
+    private static final Map<Class<?>, Map<String, Object>> DEFAULTS = new ConcurrentHashMap<>();
+
     public DataBoundConfigurator(Class<T> clazz) {
         this.target = clazz;
     }
@@ -214,15 +241,19 @@ public class DataBoundConfigurator<T> extends BaseConfigurator<T> {
 
     @NonNull
     public String getName() {
-        final Descriptor d = getDescriptor();
-        return DescribableAttribute.getPreferredSymbol(d, getImplementedAPI(), getTarget());
+        return getNames().get(0);
     }
 
     @NonNull
     @Override
     public List<String> getNames() {
-        final Descriptor d = getDescriptor();
-        return DescribableAttribute.getSymbols(d, getImplementedAPI(), getTarget());
+        List<String> n = names;
+        if (n == null) {
+            final Descriptor d = getDescriptor();
+            n = DescribableAttribute.getSymbols(d, getImplementedAPI(), getTarget());
+            names = n;
+        }
+        return n;
     }
 
     private Descriptor getDescriptor() {
@@ -231,7 +262,16 @@ public class DataBoundConfigurator<T> extends BaseConfigurator<T> {
 
     @NonNull
     public Class getImplementedAPI() {
+        Class api = implementedAPI;
+        if (api == null) {
+            api = computeImplementedAPI();
+            implementedAPI = api;
+        }
+        return api;
+    }
 
+    @NonNull
+    private Class computeImplementedAPI() {
         final Descriptor descriptor = getDescriptor();
         if (descriptor != null) {
             // traverse Descriptor's class hierarchy until we found "extends Descriptor<ExtensionPoint>"
@@ -317,10 +357,17 @@ public class DataBoundConfigurator<T> extends BaseConfigurator<T> {
             }
         }
 
-        T ref = (T) constructor.newInstance(args);
+        final Map<String, Object> defaults = getDefaults(constructor);
+        final Mapping mapping;
+        if (defaults != null) {
+            // defaults declared not to depend on constructor arguments, no need for a throwaway object
+            mapping = compare(instance, defaults, context);
+        } else {
+            T ref = (T) constructor.newInstance(args);
 
-        // compare instance with this "default" object
-        Mapping mapping = compare(instance, ref, context);
+            // compare instance with this "default" object
+            mapping = compare(instance, ref, context);
+        }
 
         // add constructor parameters
         for (int i = 0; i < parameters.length; i++) {
@@ -333,6 +380,72 @@ public class DataBoundConfigurator<T> extends BaseConfigurator<T> {
         return mapping;
     }
 
+    /**
+     * Snapshots the attribute values of an instance built with default constructor arguments, once per class.
+     *
+     * @return the snapshot, or {@code null} if the class isn't known to have constant defaults or can't be built
+     */
+    @CheckForNull
+    private Map<String, Object> getDefaults(Constructor constructor) {
+        if (!constantDefaults.contains(target.getName())) {
+            return null;
+        }
+        Map<String, Object> snapshot = DEFAULTS.get(target);
+        if (snapshot == null) {
+            final Parameter[] parameters = constructor.getParameters();
+            final Object[] args = new Object[parameters.length];
+            for (int i = 0; i < parameters.length; i++) {
+                if (parameters[i].getType().isPrimitive()) {
+                    args[i] = defaultPrimitiveValue(parameters[i].getType());
+                }
+            }
+            try {
+                final T ref = (T) constructor.newInstance(args);
+                snapshot = new HashMap<>();
+                for (Attribute<T, ?> attribute : getAttributes()) {
+                    snapshot.put(attribute.getName(), attribute.getValue(ref));
+                }
+                snapshot = Collections.unmodifiableMap(snapshot);
+                DEFAULTS.put(target, snapshot);
+            } catch (Exception e) {
+                LOGGER.log(Level.FINE, "Can't build a default reference of " + target.getName(), e);
+                return null;
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Forgets the snapshots of default values and reads the classes known to have constant defaults again, for
+     * instance when plugins bring new classes.
+     */
+    @Restricted(NoExternalUse.class)
+    public static void invalidateDefaults() {
+        constantDefaults = readConstantDefaults();
+        DEFAULTS.clear();
+    }
+
+    private static Set<String> readConstantDefaults() {
+        final String classes = System.getProperty(DataBoundConfigurator.class.getName() + ".constantDefaults", "");
+        final Set<String> names = new HashSet<>();
+        for (String name : classes.split(",")) {
+            if (!name.trim().isEmpty()) {
+                names.add(name.trim());
+            }
+        }
+        return Collections.unmodifiableSet(names);
+    }
+
+    private Mapping compare(T instance, Map<String, Object> defaults, ConfigurationContext context) throws Exception {
+        final Mapping mapping = new Mapping();
+        for (Attribute<T, ?> attribute : getAttributes()) {
+            mapping.putIfNotNull(
+                    attribute.getName(),
+                    attribute.describeIfNotDefault(instance, defaults.get(attribute.getName()), context));
+        }
+        return mapping;
+    }
+
     /**
      * Gets DataBoundConstructor or fails.
      * @return constructor with {@link org.kohsuke.stapler.DataBoundConstructor} annotation
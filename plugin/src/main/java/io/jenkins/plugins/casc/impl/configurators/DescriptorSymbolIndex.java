@@ -0,0 +1,104 @@
+package io.jenkins.plugins.casc.impl.configurators;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Describable;
+import hudson.model.Descriptor;
+import io.jenkins.plugins.casc.impl.attributes.DescribableAttribute;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Immutable symbol to {@link Descriptor} index for the implementations of one {@link HeteroDescribableConfigurator}
+ * target.
+ * <p>
+ * Preferred symbols are resolved first. Other symbols a descriptor answers to are kept as obsolete aliases, so the
+ * caller can report them. When several descriptors share a preferred symbol the first one wins, as before, and the
+ * conflict is only reported once, when the index is built.
+ */
+final class DescriptorSymbolIndex<T extends Describable<T>> {
+
+    private static final Logger LOGGER = Logger.getLogger(DescriptorSymbolIndex.class.getName());
+
+    private final Map<String, Descriptor<T>> preferred;
+    private final Map<String, Descriptor<T>> obsolete;
+    private final Map<String, Descriptor<T>> implementors;
+
+    private DescriptorSymbolIndex(
+            Map<String, Descriptor<T>> preferred,
+            Map<String, Descriptor<T>> obsolete,
+            Map<String, Descriptor<T>> implementors) {
+        this.preferred = preferred;
+        this.obsolete = obsolete;
+        this.implementors = implementors;
+    }
+
+    static <T extends Describable<T>> DescriptorSymbolIndex<T> build(
+            @NonNull Class<T> target, @NonNull Iterable<Descriptor<T>> descriptors) {
+        final Map<String, Descriptor<T>> preferred = new HashMap<>();
+        final Map<String, Descriptor<T>> obsolete = new HashMap<>();
+        final Map<String, Descriptor<T>> implementors = new LinkedHashMap<>();
+
+        for (Descriptor<T> descriptor : descriptors) {
+            final List<String> symbols = DescribableAttribute.getSymbols(descriptor, target, target);
+            final String symbol = symbols.get(0);
+            final Descriptor<T> existing = implementors.putIfAbsent(symbol, descriptor);
+            if (existing != null) {
+                LOGGER.warning(String.format(
+                        "Found multiple implementations for symbol = %s: [%s, %s]. Please report to plugin maintainer.",
+                        symbol, existing, descriptor));
+                continue;
+            }
+            preferred.putIfAbsent(toKey(symbol), descriptor);
+            for (String alias : symbols.subList(1, symbols.size())) {
+                obsolete.putIfAbsent(toKey(alias), descriptor);
+            }
+        }
+        // an alias never shadows another implementation's preferred symbol
+        obsolete.keySet().removeAll(preferred.keySet());
+
+        return new DescriptorSymbolIndex<>(
+                Collections.unmodifiableMap(preferred),
+                Collections.unmodifiableMap(obsolete),
+                Collections.unmodifiableMap(implementors));
+    }
+
+    /**
+     * @return the descriptor whose preferred symbol matches, case-insensitively, or {@code null}
+     */
+    @CheckForNull
+    Descriptor<T> byPreferredSymbol(@NonNull String symbol) {
+        return preferred.get(toKey(symbol));
+    }
+
+    /**
+     * @return the descriptor still answering to this obsolete symbol, or {@code null}
+     */
+    @CheckForNull
+    Descriptor<T> byObsoleteSymbol(@NonNull String symbol) {
+        return obsolete.get(toKey(symbol));
+    }
+
+    /**
+     * @return preferred symbol to descriptor, in extension ordinal order, duplicates removed
+     */
+    @NonNull
+    Map<String, Descriptor<T>> getImplementors() {
+        return implementors;
+    }
+
+    @NonNull
+    List<String> getPreferredSymbols() {
+        return new ArrayList<>(implementors.keySet());
+    }
+
+    private static String toKey(String symbol) {
+        return symbol.toLowerCase(Locale.ROOT);
+    }
+}
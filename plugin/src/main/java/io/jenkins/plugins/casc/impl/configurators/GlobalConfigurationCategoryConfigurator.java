@@ -88,7 +88,9 @@ public class GlobalConfigurationCategoryConfigurator extends BaseConfigurator<Gl
                 .filter(d -> d.getGlobalConfigPage() != null)
                 .map(DescriptorConfigurator::new)
                 .filter(GlobalConfigurationCategoryConfigurator::reportDescriptorWithoutSetters)
-                .map(c -> new Attribute<GlobalConfigurationCategory, Object>(c.getNames(), c.getTarget()).setter(NOP))
+                .map(c -> new Attribute<GlobalConfigurationCategory, Object>(c.getNames(), c.getTarget())
+                        .setter(NOP)
+                        .getter(target -> c.getTargetComponent(null)))
                 .collect(Collectors.toSet());
     }
 
@@ -6,6 +6,10 @@ import static io.vavr.API.unchecked;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.DescriptorExtensionList;
+import hudson.ExtensionList;
+import hudson.ExtensionListListener;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
 import hudson.model.Describable;
 import hudson.model.Descriptor;
 import hudson.security.HudsonPrivateSecurityRealm;
@@ -21,20 +25,20 @@ import io.jenkins.plugins.casc.model.Mapping;
 import io.jenkins.plugins.casc.model.Scalar;
 import io.vavr.Tuple;
 import io.vavr.Tuple2;
-import io.vavr.collection.HashMap;
 import io.vavr.collection.Stream;
 import io.vavr.control.Option;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 import jenkins.model.Jenkins;
 import org.jenkinsci.Symbol;
 import org.kohsuke.accmod.Restricted;
@@ -59,6 +63,16 @@ public class HeteroDescribableConfigurator<T extends Describable<T>> implements
 
     private static final Logger LOGGER = Logger.getLogger(HeteroDescribableConfigurator.class.getName());
 
+    /**
+     * Symbol indexes per target, shared by all configurator instances and dropped on extension changes.
+     */
+    private static final Map<Class<?>, DescriptorSymbolIndex<?>> SYMBOL_INDEXES = new ConcurrentHashMap<>();
+
+    /**
+     * Descriptors resolved per target, see {@link #getDescriptors()}. Dropped on extension changes as well.
+     */
+    private static final Map<Class<?>, List<? extends Descriptor<?>>> DESCRIPTORS = new ConcurrentHashMap<>();
+
     private final Class<T> target;
 
     public HeteroDescribableConfigurator(Class<T> clazz) {
@@ -122,11 +136,9 @@ public class HeteroDescribableConfigurator<T extends Describable<T>> implements
 
     @SuppressWarnings("unused")
     public Map<String, Class<T>> getImplementors() {
-        return getDescriptors()
-                .map(descriptor -> Tuple.of(preferredSymbol(descriptor), descriptor))
-                .foldLeft(HashMap.empty(), this::handleDuplicateSymbols)
-                .mapValues(this::descriptorClass)
-                .toJavaMap();
+        final Map<String, Class<T>> implementors = new LinkedHashMap<>();
+        getSymbolIndex().getImplementors().forEach((symbol, d) -> implementors.put(symbol, descriptorClass(d)));
+        return implementors;
     }
 
     private Option<Configurator<T>> lookupConfigurator(ConfigurationContext context, Class<?> descriptor) {
@@ -144,12 +156,18 @@ public class HeteroDescribableConfigurator<T extends Describable<T>> implements
      * The fetch is trivial when the target implements a root {@link Describable} object.
      * If not, we iterate to parent classes until we find a class which can provide the descriptor list in {@link Jenkins#getDescriptorList(Class)}.
      * Then we go through all the descriptors and find ones compliant with the target.
+     * The resolved list is cached per target, so the class hierarchy is only walked once.
      * @return Stream of descriptors which match the target
      */
+    @SuppressWarnings("unchecked")
     private Stream<Descriptor<T>> getDescriptors() {
+        return Stream.ofAll((List<Descriptor<T>>) DESCRIPTORS.computeIfAbsent(target, t -> resolveDescriptors()));
+    }
+
+    private List<Descriptor<T>> resolveDescriptors() {
         DescriptorExtensionList<T, Descriptor<T>> descriptorList = Jenkins.get().getDescriptorList(target);
-        if (!descriptorList.isEmpty()) { // fast fetch for root objects
-            return Stream.ofAll(descriptorList);
+        if (!descriptorList.isEmpty()) { // fast fetch for root objects, kept up to date by Jenkins
+            return descriptorList;
         }
 
         LOGGER.log(
@@ -182,7 +200,7 @@ public class HeteroDescribableConfigurator<T extends Describable<T>> implements
         }
 
         if (parentDescriptorClassList.isEmpty()) {
-            return Stream.empty();
+            return Collections.emptyList();
         }
 
         List<Descriptor<T>> descriptorsWithProperType = new ArrayList<>();
@@ -207,7 +225,7 @@ public class HeteroDescribableConfigurator<T extends Describable<T>> implements
                 }
             }
         }
-        return Stream.ofAll(descriptorsWithProperType);
+        return Collections.unmodifiableList(descriptorsWithProperType);
     }
 
     @SuppressWarnings("unchecked")
@@ -216,65 +234,55 @@ public class HeteroDescribableConfigurator<T extends Describable<T>> implements
     }
 
     private Option<Descriptor<T>> lookupDescriptor(String symbol, CNode config) {
-        Stream<Descriptor<T>> descriptors = getDescriptors();
-        return descriptors
-                .filter(descriptor ->
-                        findByPreferredSymbol(descriptor, symbol) || findBySymbols(descriptor, symbol, config))
-                .map(descriptor -> Tuple.of(preferredSymbol(descriptor), descriptor))
-                .foldLeft(HashMap.empty(), this::handleDuplicateSymbols)
-                .values()
-                .headOption()
-                .orElse(() -> {
-                    List<String> availableImplementations = descriptors
-                            .toJavaStream()
-                            .map(d -> DescribableAttribute.getPreferredSymbol(d, getImplementedAPI(), target))
-                            .collect(Collectors.toList());
-
-                    throw new UnknownAttributesException(
-                            this,
-                            "No implementation found for:",
-                            "No " + target.getName() + " implementation found for " + symbol,
-                            symbol,
-                            availableImplementations);
-                });
-    }
-
-    private Boolean findByPreferredSymbol(Descriptor<T> descriptor, String symbol) {
-        return preferredSymbol(descriptor).equalsIgnoreCase(symbol);
-    }
-
-    private Boolean findBySymbols(Descriptor<T> descriptor, String symbol, CNode node) {
-        return getSymbols(descriptor)
-                .find(actual -> actual.equalsIgnoreCase(symbol))
-                .map(actual -> {
-                    ObsoleteConfigurationMonitor.get()
-                            .record(
-                                    node,
-                                    "'" + symbol + "' is obsolete, please use '" + preferredSymbol(descriptor) + "'");
-                    return descriptorClass(descriptor);
-                })
-                .isDefined();
+        final DescriptorSymbolIndex<T> index = getSymbolIndex();
+        final Descriptor<T> descriptor = index.byPreferredSymbol(symbol);
+        if (descriptor != null) {
+            return Option.some(descriptor);
+        }
+        final Descriptor<T> obsolete = index.byObsoleteSymbol(symbol);
+        if (obsolete != null) {
+            ObsoleteConfigurationMonitor.get()
+                    .record(config, "'" + symbol + "' is obsolete, please use '" + preferredSymbol(obsolete) + "'");
+            return Option.some(obsolete);
+        }
+        throw new UnknownAttributesException(
+                this,
+                "No implementation found for:",
+                "No " + target.getName() + " implementation found for " + symbol,
+                symbol,
+                index.getPreferredSymbols());
     }
 
-    private Stream<String> getSymbols(Descriptor<T> descriptor) {
-        return Stream.ofAll(DescribableAttribute.getSymbols(descriptor, target, target));
+    @SuppressWarnings("unchecked")
+    private DescriptorSymbolIndex<T> getSymbolIndex() {
+        return (DescriptorSymbolIndex<T>)
+                SYMBOL_INDEXES.computeIfAbsent(target, t -> DescriptorSymbolIndex.build(target, getDescriptors()));
     }
 
     private String preferredSymbol(Descriptor<?> descriptor) {
         return DescribableAttribute.getPreferredSymbol(descriptor, target, target);
     }
 
-    private HashMap<String, Descriptor<T>> handleDuplicateSymbols(
-            HashMap<String, Descriptor<T>> r, Tuple2<String, Descriptor<T>> t) {
-        if (r.containsKey(t._1)) {
-            String message = String.format(
-                    "Found multiple implementations for symbol = %s: [%s, %s]. Please report to plugin maintainer.",
-                    t._1, r.get(t._1).get(), t._2);
-            LOGGER.warning(message);
-            return r;
-        } else {
-            return r.put(t);
-        }
+    /**
+     * Drops the resolved descriptors, symbol indexes, symbols and default values whenever the set of known
+     * {@link Descriptor}s changes, e.g. when a plugin gets dynamically loaded.
+     */
+    @Initializer(after = InitMilestone.EXTENSIONS_AUGMENTED)
+    public static void invalidateOnExtensionChanges() {
+        invalidateCaches();
+        ExtensionList.lookup(Descriptor.class).addListener(new ExtensionListListener() {
+            @Override
+            public void onChange() {
+                invalidateCaches();
+            }
+        });
+    }
+
+    private static void invalidateCaches() {
+        DESCRIPTORS.clear();
+        SYMBOL_INDEXES.clear();
+        DescribableAttribute.invalidateSymbols();
+        DataBoundConfigurator.invalidateDefaults();
     }
 
     private Tuple2<String, Option<CNode>> preConfigure(CNode config) {
@@ -1,18 +1,28 @@
 package io.jenkins.plugins.casc.impl.secrets;
 
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import hudson.Extension;
 import io.jenkins.plugins.casc.SecretSource;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.StringUtils;
 
 /**
  * {@link SecretSource} implementation relying on <a href="https://docs.docker.com/engine/swarm/secrets">docker secrets</a>.
  * The path to secret directory can be overridden by setting environment variable <code>SECRETS</code>.
+ * <p>
+ * The secret directory is listed once per configuration apply, when {@link #init()} is called. Secrets absent from
+ * that listing are answered without touching the file system. The content of secrets isn't kept: secrets referenced
+ * more than once in an apply are served by the cache of the {@link io.jenkins.plugins.casc.SecretSourceResolver}.
  * @author <a href="mailto:nicolas.deloof@gmail.com">Nicolas De Loof</a>
  */
 @Extension
@@ -21,17 +31,45 @@ public class DockerSecretSource extends SecretSource {
     public static final String DOCKER_SECRETS = "/run/secrets/";
     private final File secrets;
 
+    @CheckForNull
+    private volatile Index index;
+
     @SuppressFBWarnings("DMI_HARDCODED_ABSOLUTE_FILENAME")
     public DockerSecretSource() {
         String s = System.getenv("SECRETS");
         secrets = s != null ? new File(s) : new File(DOCKER_SECRETS);
     }
 
+    @Override
+    public void init() {
+        index = new Index(secrets.list());
+    }
+
     @Override
     public Optional<String> reveal(String secret) throws IOException {
         if (StringUtils.isBlank(secret)) {
             return Optional.empty();
         }
+        final Index index = this.index;
+        if (index == null || !index.covers(secret)) {
+            return read(secret);
+        }
+        return index.names.contains(secret) ? read(secret) : Optional.empty();
+    }
+
+    @Override
+    public CompletableFuture<Optional<String>> revealAsync(String secret) {
+        final Index index = this.index;
+        if (StringUtils.isBlank(secret) || index == null || !index.covers(secret)) {
+            return super.revealAsync(secret);
+        }
+        // only hop threads when the file has to be read
+        return index.names.contains(secret)
+                ? super.revealAsync(secret)
+                : CompletableFuture.completedFuture(Optional.empty());
+    }
+
+    private Optional<String> read(String secret) throws IOException {
         final File file = new File(secrets, secret);
         if (file.isFile()) {
             return Optional.of(
@@ -41,4 +79,22 @@ public class DockerSecretSource extends SecretSource {
         }
         return Optional.empty();
     }
+
+    /**
+     * Snapshot of the secret directory entries.
+     */
+    private static final class Index {
+        private final Set<String> names;
+
+        Index(@CheckForNull String[] names) {
+            this.names = names != null ? new HashSet<>(Arrays.asList(names)) : Collections.emptySet();
+        }
+
+        /**
+         * Only plain entries of the secret directory are listed, anything else is looked up on disk.
+         */
+        boolean covers(String secret) {
+            return secret.indexOf('/') < 0 && secret.indexOf(File.separatorChar) < 0 && !secret.startsWith(".");
+        }
+    }
 }
@@ -3,6 +3,7 @@ package io.jenkins.plugins.casc.impl.secrets;
 import hudson.Extension;
 import io.jenkins.plugins.casc.SecretSource;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import org.apache.commons.lang.StringUtils;
 import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.NoExternalUse;
@@ -18,4 +19,10 @@ public class EnvSecretSource extends SecretSource {
         }
         return Optional.ofNullable(System.getProperty(secret, System.getenv(secret)));
     }
+
+    @Override
+    public CompletableFuture<Optional<String>> revealAsync(String secret) {
+        // in memory lookup, no need to hop threads
+        return CompletableFuture.completedFuture(reveal(secret));
+    }
 }
@@ -1,13 +1,24 @@
 package io.jenkins.plugins.casc.impl.secrets;
 
 import hudson.Extension;
+import hudson.Util;
 import io.jenkins.plugins.casc.SecretSource;
-import java.io.File;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.kohsuke.accmod.Restricted;
@@ -16,7 +27,11 @@ import org.kohsuke.accmod.restrictions.NoExternalUse;
 /**
  * This {@link SecretSource} implementation allows to use a .properties file for providing secrets.
  * The default file path is {@code /run/secrets/secrets.properties}, which can be changed via
- * {@code SECRETS_FILE} environment variable.
+ * {@code SECRETS_FILE} environment variable. It can also point to a directory, in which case all its
+ * {@code *.properties} files are loaded in name order, later files overriding earlier ones.
+ * <p>
+ * Files are only parsed again on {@link #init()} when their size, modification time and content digest show they
+ * actually changed.
  *
  * @author <a href="mailto:d.estermann.de@gmail.com">Daniel Estermann</a>
  * @since 1.33
@@ -32,7 +47,12 @@ public class PropertiesSecretSource extends SecretSource {
      */
     public static final String SECRETS_DEFAULT_PATH = "/run/secrets/secrets.properties";
 
-    private final Properties secrets = new Properties();
+    private volatile Properties secrets = new Properties();
+
+    /**
+     * Files loaded so far, guarded by {@code this}.
+     */
+    private final Map<Path, LoadedFile> loaded = new HashMap<>();
 
     @Override
     public Optional<String> reveal(String secret) {
@@ -40,17 +60,100 @@ public class PropertiesSecretSource extends SecretSource {
     }
 
     @Override
-    public void init() {
+    public CompletableFuture<Optional<String>> revealAsync(String secret) {
+        // in memory lookup, no need to hop threads
+        return CompletableFuture.completedFuture(reveal(secret));
+    }
+
+    @Override
+    public synchronized void init() {
         final String secretsEnv = System.getenv("SECRETS_FILE");
-        final String secretsPath = secretsEnv == null ? SECRETS_DEFAULT_PATH : secretsEnv;
-        final File secretsFile = new File(secretsPath);
-        if (secretsFile.exists() && secretsFile.isFile()) {
-            try (InputStream input = Files.newInputStream(secretsFile.toPath())) {
-                secrets.clear();
-                secrets.load(input);
-            } catch (IOException ioe) {
-                LOGGER.log(Level.WARNING, "Source properties file " + secretsPath + " could not be loaded", ioe);
+        final Path secretsPath = Paths.get(secretsEnv == null ? SECRETS_DEFAULT_PATH : secretsEnv);
+        final List<Path> files;
+        try {
+            files = listFiles(secretsPath);
+        } catch (IOException ioe) {
+            LOGGER.log(Level.WARNING, "Source properties directory " + secretsPath + " could not be listed", ioe);
+            return;
+        }
+
+        boolean changed = loaded.keySet().retainAll(files);
+        for (Path file : files) {
+            changed |= load(file);
+        }
+        if (changed) {
+            final Properties merged = new Properties();
+            for (Path file : files) {
+                final LoadedFile loadedFile = loaded.get(file);
+                if (loadedFile != null) {
+                    merged.putAll(loadedFile.properties);
+                }
+            }
+            secrets = merged;
+        }
+    }
+
+    private static List<Path> listFiles(Path secretsPath) throws IOException {
+        if (Files.isRegularFile(secretsPath)) {
+            return Collections.singletonList(secretsPath);
+        }
+        if (!Files.isDirectory(secretsPath)) {
+            return Collections.emptyList();
+        }
+        final List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(secretsPath, "*.properties")) {
+            for (Path file : stream) {
+                if (Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            }
+        }
+        Collections.sort(files);
+        return files;
+    }
+
+    /**
+     * @return {@code true} if the file was parsed again with a different content
+     */
+    private boolean load(Path file) {
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            final LoadedFile previous = loaded.get(file);
+            if (previous != null && previous.isSameAs(attributes)) {
+                return false;
             }
+            final byte[] content = Files.readAllBytes(file);
+            final String digest = Util.getDigestOf(new ByteArrayInputStream(content));
+            if (previous != null && previous.digest.equals(digest)) {
+                // touched but unchanged
+                loaded.put(file, new LoadedFile(attributes, digest, previous.properties));
+                return false;
+            }
+            final Properties properties = new Properties();
+            properties.load(new ByteArrayInputStream(content));
+            loaded.put(file, new LoadedFile(attributes, digest, properties));
+            return true;
+        } catch (IOException ioe) {
+            LOGGER.log(Level.WARNING, "Source properties file " + file + " could not be loaded", ioe);
+            return false;
+        }
+    }
+
+    private static final class LoadedFile {
+        private final long size;
+        private final FileTime lastModified;
+        private final String digest;
+        private final Properties properties;
+
+        LoadedFile(BasicFileAttributes attributes, String digest, Properties properties) {
+            this.size = attributes.size();
+            this.lastModified = attributes.lastModifiedTime();
+            this.digest = digest;
+            this.properties = properties;
+        }
+
+        boolean isSameAs(BasicFileAttributes attributes) {
+            return size == attributes.size() && lastModified.equals(attributes.lastModifiedTime());
         }
     }
 }
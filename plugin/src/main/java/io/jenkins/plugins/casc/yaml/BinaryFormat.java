@@ -0,0 +1,278 @@
+package io.jenkins.plugins.casc.yaml;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.yaml.snakeyaml.DumperOptions.FlowStyle.BLOCK;
+
+import io.jenkins.plugins.casc.ConfigurationContext;
+import io.jenkins.plugins.casc.ConfiguratorException;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
+
+/**
+ * Binary encoding of an exported configuration, which is read back as the same YAML nodes as the YAML export.
+ * <p>
+ * A document starts with {@link #MAGIC} and a version byte, followed by the tokens of its top level mapping. Strings
+ * are UTF-8 bytes prefixed by their length, mapping keys are only written once and referenced by their index
+ * afterwards. Lengths and indexes are variable-length unsigned integers.
+ */
+@Restricted(NoExternalUse.class)
+public final class BinaryFormat {
+
+    /**
+     * Can't start a YAML document, so binary sources are told apart from YAML ones by content.
+     */
+    private static final byte[] MAGIC = {0, 'C', 'A', 'S', 'C'};
+
+    public static final int VERSION = 1;
+
+    public static final int MAPPING_START = 1;
+    public static final int MAPPING_END = 2;
+    public static final int SEQUENCE_START = 3;
+    public static final int SEQUENCE_END = 4;
+    /** A key seen for the first time, followed by its string. */
+    public static final int KEY = 5;
+    /** A key already seen, followed by its index in order of appearance. */
+    public static final int KEY_REFERENCE = 6;
+    /** Followed by one of the {@code TAG_} constants and the value string. */
+    public static final int SCALAR = 7;
+
+    public static final int TAG_STRING = 0;
+    public static final int TAG_NUMBER = 1;
+    public static final int TAG_BOOLEAN = 2;
+    /** Added to the tag of scalars written as plain YAML scalars. */
+    public static final int TAG_RAW = 0x10;
+
+    private BinaryFormat() {}
+
+    public static void writeHeader(DataOutput out) throws IOException {
+        out.write(MAGIC);
+        out.write(VERSION);
+    }
+
+    public static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    public static void writeString(DataOutput out, String value) throws IOException {
+        final byte[] bytes = value.getBytes(UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Tells whether a stream holds a binary export, leaving it untouched.
+     *
+     * @param in stream supporting {@link InputStream#mark(int)}
+     */
+    static boolean isBinary(InputStream in) throws IOException {
+        in.mark(MAGIC.length);
+        try {
+            final byte[] header = new byte[MAGIC.length];
+            return in.readNBytes(header, 0, header.length) == header.length && Arrays.equals(header, MAGIC);
+        } finally {
+            in.reset();
+        }
+    }
+
+    /**
+     * Reads a binary export as YAML nodes, with the same limits as YAML sources: every byte counts against the
+     * document size limit, as do the characters of each key reference, as if the key was repeated, and collections
+     * can't be nested deeper than snakeyaml allows.
+     */
+    static Node read(YamlSource<?> source, InputStream in, ConfigurationContext context) throws IOException {
+        return new Reader(source, in, context.getYamlCodePointLimit(), new LoaderOptions().getNestingDepthLimit())
+                .document();
+    }
+
+    private static final class Reader {
+        private final String name;
+        private final DataInputStream in;
+        private final List<String> keys = new ArrayList<>();
+        private final int maxDepth;
+        private long remaining;
+        private int offset;
+        private int depth;
+
+        Reader(YamlSource<?> source, InputStream in, long limit, int maxDepth) {
+            this.name = source.source();
+            this.in = new DataInputStream(in);
+            this.remaining = limit;
+            this.maxDepth = maxDepth;
+        }
+
+        Node document() throws IOException {
+            final byte[] header = new byte[MAGIC.length];
+            in.readFully(header);
+            final int version = in.readUnsignedByte();
+            offset = MAGIC.length + 1;
+            if (!Arrays.equals(header, MAGIC) || version != VERSION) {
+                throw new ConfiguratorException("Unsupported binary configuration format in " + name);
+            }
+            final int token = next();
+            if (token != MAPPING_START) {
+                throw malformed("Expected a mapping");
+            }
+            final Node root = node(token);
+            if (in.read() != -1) {
+                throw new ConfiguratorException("Unexpected content after the configuration in " + name);
+            }
+            return root;
+        }
+
+        private Node node(int token) throws IOException {
+            final Mark mark = mark();
+            switch (token) {
+                case MAPPING_START:
+                    enter();
+                    final List<NodeTuple> tuples = new ArrayList<>();
+                    for (int t = next(); t != MAPPING_END; t = next()) {
+                        final Node key = key(t);
+                        tuples.add(new NodeTuple(key, node(next())));
+                    }
+                    depth--;
+                    return new MappingNode(Tag.MAP, true, tuples, mark, mark(), BLOCK);
+                case SEQUENCE_START:
+                    enter();
+                    final List<Node> items = new ArrayList<>();
+                    for (int t = next(); t != SEQUENCE_END; t = next()) {
+                        items.add(node(t));
+                    }
+                    depth--;
+                    return new SequenceNode(Tag.SEQ, true, items, mark, mark(), BLOCK);
+                case SCALAR:
+                    final int tag = readByte();
+                    final DumperOptions.ScalarStyle style = (tag & TAG_RAW) != 0
+                            ? DumperOptions.ScalarStyle.PLAIN
+                            : DumperOptions.ScalarStyle.DOUBLE_QUOTED;
+                    return new ScalarNode(tag(tag & ~TAG_RAW), readString(), mark, mark, style);
+                default:
+                    throw malformed("Unexpected token " + token);
+            }
+        }
+
+        private Node key(int token) throws IOException {
+            final Mark mark = mark();
+            final String key;
+            if (token == KEY) {
+                key = readString();
+                keys.add(key);
+            } else if (token == KEY_REFERENCE) {
+                final int index = readVarInt();
+                if (index >= keys.size()) {
+                    throw malformed("Unknown key reference");
+                }
+                key = keys.get(index);
+                charge(key.length());
+            } else {
+                throw malformed("Expected a key");
+            }
+            return new ScalarNode(Tag.STR, key, mark, mark, DumperOptions.ScalarStyle.PLAIN);
+        }
+
+        private Tag tag(int tag) throws ConfiguratorException {
+            switch (tag) {
+                case TAG_STRING:
+                    return Tag.STR;
+                case TAG_NUMBER:
+                    return Tag.INT;
+                case TAG_BOOLEAN:
+                    return Tag.BOOL;
+                default:
+                    throw malformed("Unknown scalar tag " + tag);
+            }
+        }
+
+        private void enter() throws ConfiguratorException {
+            if (++depth > maxDepth) {
+                throw malformed("Nesting depth exceeds the limit of " + maxDepth);
+            }
+        }
+
+        private ConfiguratorException malformed(String message) {
+            return new ConfiguratorException(message + " at offset " + offset + " in " + name);
+        }
+
+        /**
+         * Binary sources have no lines, the offset of each node is reported as its line instead. Marks count lines
+         * from 0 and sources from 1, and the header comes first, so the reported line is the offset itself.
+         */
+        private Mark mark() {
+            return new Mark(name, offset, offset - 1, 0, new int[0], 0);
+        }
+
+        private int next() throws IOException {
+            return readByte();
+        }
+
+        private int readByte() throws IOException {
+            final int b = in.read();
+            if (b == -1) {
+                throw new EOFException("Truncated binary configuration " + name);
+            }
+            offset++;
+            charge(1);
+            return b;
+        }
+
+        private int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                final int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw malformed("Malformed length");
+        }
+
+        private String readString() throws IOException {
+            final int length = readVarInt();
+            if (length < 0) {
+                throw malformed("Malformed length");
+            }
+            charge(length);
+            final byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            offset += length;
+            return new String(bytes, UTF_8);
+        }
+
+        /**
+         * Counts some input against the limit of the document size.
+         */
+        private void charge(long size) throws ConfiguratorException {
+            remaining -= size;
+            if (remaining < 0) {
+                throw new ConfiguratorException(String.format(
+                        "Binary configuration %s exceeds the limit of the document size%n"
+                                + "You can increase the maximum by setting an environment variable or property%n"
+                                + "  ENV: %s%n  PROPERTY: -D%s",
+                        name,
+                        ConfigurationContext.CASC_YAML_CODE_POINT_LIMIT_ENV,
+                        ConfigurationContext.CASC_YAML_CODE_POINT_LIMIT_PROPERTY));
+            }
+        }
+    }
+}
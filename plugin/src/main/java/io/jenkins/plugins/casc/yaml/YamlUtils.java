@@ -6,12 +6,12 @@ import io.jenkins.plugins.casc.ConfigurationAsCode;
 import io.jenkins.plugins.casc.ConfigurationContext;
 import io.jenkins.plugins.casc.ConfiguratorException;
 import io.jenkins.plugins.casc.model.Mapping;
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.net.URI;
-import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
@@ -36,8 +36,10 @@ public final class YamlUtils {
         Node root = null;
         MergeStrategy mergeStrategy = MergeStrategyFactory.getMergeStrategyOrDefault(context.getMergeStrategy());
         for (YamlSource<?> source : sources) {
-            try (Reader reader = reader(source)) {
-                final Node node = read(source, reader, context);
+            try (InputStream in = new BufferedInputStream(inputStream(source))) {
+                final Node node = BinaryFormat.isBinary(in)
+                        ? BinaryFormat.read(source, in, context)
+                        : read(source, new InputStreamReader(in, UTF_8), context);
 
                 if (root == null) {
                     root = node;
@@ -77,16 +79,22 @@ public final class YamlUtils {
     }
 
     public static Reader reader(YamlSource<?> source) throws IOException {
+        return new InputStreamReader(inputStream(source), UTF_8);
+    }
+
+    /**
+     * Opens a source, which may hold YAML or a binary export.
+     */
+    private static InputStream inputStream(YamlSource<?> source) throws IOException {
         Object src = source.source;
         if (src instanceof String) {
-            final URL url = URI.create((String) src).toURL();
-            return new InputStreamReader(url.openStream(), UTF_8);
+            return URI.create((String) src).toURL().openStream();
         } else if (src instanceof InputStream) {
-            return new InputStreamReader((InputStream) src, UTF_8);
+            return (InputStream) src;
         } else if (src instanceof HttpServletRequest) {
-            return new InputStreamReader(((HttpServletRequest) src).getInputStream(), UTF_8);
+            return ((HttpServletRequest) src).getInputStream();
         } else if (src instanceof Path) {
-            return Files.newBufferedReader((Path) src);
+            return Files.newInputStream((Path) src);
         }
         throw new IOException(String.format("Unknown %s", source));
     }
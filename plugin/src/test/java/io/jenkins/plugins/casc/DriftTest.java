@@ -0,0 +1,175 @@
+package io.jenkins.plugins.casc;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.core.Is.is;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.ExtensionList;
+import hudson.util.Secret;
+import io.jenkins.plugins.casc.impl.configurators.DataBoundConfigurator;
+import io.jenkins.plugins.casc.model.Mapping;
+import io.jenkins.plugins.casc.yaml.YamlSource;
+import io.jenkins.plugins.casc.yaml.YamlUtils;
+import java.util.List;
+import java.util.Set;
+import jenkins.model.GlobalConfiguration;
+import jenkins.model.JenkinsLocationConfiguration;
+import org.jenkinsci.Symbol;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+public class DriftTest {
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void reportsDifferencesOfConfiguredAttributesOnly() throws Exception {
+        j.jenkins.setSystemMessage("changed by hand");
+        j.jenkins.setNumExecutors(3);
+        JenkinsLocationConfiguration.get().setAdminAddress("admin@example.com");
+
+        ConfigurationContext context = new ConfigurationContext(ConfiguratorRegistry.get());
+        String source = getClass().getResource("drift.yml").toExternalForm();
+        Mapping entries = YamlUtils.loadFrom(singletonList(YamlSource.of(source)), context);
+        List<Drift> drifts = Drift.detect(entries, context);
+        assertThat(drifts, hasSize(2));
+
+        Drift changed = find(drifts, Drift.Kind.CHANGED);
+        assertThat(changed.getPath(), is("jenkins.systemMessage"));
+        assertThat(changed.getExpected(), is("Configured by Configuration as Code plugin"));
+        assertThat(changed.getActual(), is("changed by hand"));
+        assertThat(changed.getSource().line, is(2));
+
+        Drift unknown = find(drifts, Drift.Kind.UNKNOWN);
+        assertThat(unknown.getPath(), is("jenkins.noSuchAttribute"));
+        assertThat(unknown.getSource().line, is(4));
+    }
+
+    @Test
+    public void comparesSensitiveValuesAndResolvesNestedNames() throws Exception {
+        DriftConfiguration configuration = DriftConfiguration.get();
+        configuration.setPassword("s3cr3t");
+        configuration.setApiKey("changed by hand");
+        DriftItem item = new DriftItem("first");
+        item.setToken("t0ken");
+        configuration.setItems(singletonList(item));
+
+        ConfigurationContext context = new ConfigurationContext(ConfiguratorRegistry.get());
+        String source = getClass().getResource("driftSensitive.yml").toExternalForm();
+        Mapping entries = YamlUtils.loadFrom(singletonList(YamlSource.of(source)), context);
+        List<Drift> drifts = Drift.detect(entries, context);
+        assertThat(drifts, hasSize(2));
+
+        // compared before being masked, and not revealed
+        Drift changed = find(drifts, Drift.Kind.CHANGED);
+        assertThat(changed.getPath(), is("unclassified.driftTest.apiKey"));
+        assertThat(changed.getExpected(), is("****"));
+        assertThat(changed.getActual(), is("****"));
+
+        // only described masked, under a sequence whose items use an alias
+        Drift unverifiable = find(drifts, Drift.Kind.UNVERIFIABLE);
+        assertThat(unverifiable.getPath(), is("unclassified.driftTest.items[0].token"));
+        assertThat(unverifiable.getExpected(), is("****"));
+        assertThat(unverifiable.getActual(), is("****"));
+        assertThat(unverifiable.toJSON().toString(), not(containsString("t0ken")));
+    }
+
+    private static Drift find(List<Drift> drifts, Drift.Kind kind) {
+        return drifts.stream().filter(d -> d.getKind() == kind).findFirst().orElseThrow(AssertionError::new);
+    }
+
+    @TestExtension("comparesSensitiveValuesAndResolvesNestedNames")
+    @Symbol("driftTest")
+    public static class DriftConfiguration extends GlobalConfiguration {
+
+        private Secret password;
+        private Secret apiKey;
+        private List<DriftItem> items;
+
+        public static DriftConfiguration get() {
+            return ExtensionList.lookupSingleton(DriftConfiguration.class);
+        }
+
+        public String getPassword() {
+            return Secret.toString(password);
+        }
+
+        @DataBoundSetter
+        public void setPassword(String password) {
+            this.password = Secret.fromString(password);
+        }
+
+        public String getApiKey() {
+            return Secret.toString(apiKey);
+        }
+
+        @DataBoundSetter
+        public void setApiKey(String apiKey) {
+            this.apiKey = Secret.fromString(apiKey);
+        }
+
+        public List<DriftItem> getItems() {
+            return items;
+        }
+
+        @DataBoundSetter
+        public void setItems(List<DriftItem> items) {
+            this.items = items;
+        }
+    }
+
+    public static class DriftItem {
+
+        private final String name;
+        private Secret token;
+
+        @DataBoundConstructor
+        public DriftItem(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getToken() {
+            return Secret.toString(token);
+        }
+
+        @DataBoundSetter
+        public void setToken(String token) {
+            this.token = Secret.fromString(token);
+        }
+    }
+
+    /**
+     * Knows the name of an item by its former name too.
+     */
+    @TestExtension("comparesSensitiveValuesAndResolvesNestedNames")
+    public static class DriftItemConfigurator extends DataBoundConfigurator<DriftItem> {
+
+        public DriftItemConfigurator() {
+            super(DriftItem.class);
+        }
+
+        @NonNull
+        @Override
+        public Set<Attribute<DriftItem, ?>> describe() {
+            final Set<Attribute<DriftItem, ?>> attributes = super.describe();
+            for (Attribute<DriftItem, ?> attribute : attributes) {
+                if (attribute.getName().equals("name")) {
+                    attribute.alias("title");
+                }
+            }
+            return attributes;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.jenkins.plugins.casc;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThrows;
+
+import io.jenkins.plugins.casc.impl.DefaultConfiguratorRegistry;
+import io.jenkins.plugins.casc.model.Mapping;
+import io.jenkins.plugins.casc.yaml.YamlSource;
+import io.jenkins.plugins.casc.yaml.YamlUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+public class SchemaValidatorTest {
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void reportsErrorsWithTheirLines() throws Exception {
+        ConfigurationContext context = new ConfigurationContext(ConfiguratorRegistry.get());
+        String source = getClass().getResource("schemaValidation.yml").toExternalForm();
+        Mapping entries = YamlUtils.loadFrom(singletonList(YamlSource.of(source)), context);
+        SchemaValidator validator = new SchemaValidator(new DefaultConfiguratorRegistry());
+
+        String message = assertThrows(ConfiguratorException.class, () -> validator.validate(entries, context))
+                .getMessage();
+        String numExecutors = error(message, "jenkins.numExecutors");
+        assertThat(numExecutors, startsWith("expected an integer, found 'two' ("));
+        assertThat(numExecutors, endsWith(":3)"));
+        assertThat(
+                error(message, "jenkins.mode"), startsWith("expected one of [NORMAL, EXCLUSIVE], found 'SOMETIMES'"));
+        assertThat(error(message, "jenkins.noSuchAttribute"), endsWith(":5)"));
+        assertThat(message, not(containsString("systemMessage")));
+        assertThat(message, not(containsString("quietPeriod")));
+    }
+
+    @Test
+    public void followsTheUnknownAttributesSetting() throws Exception {
+        ConfigurationContext context = new ConfigurationContext(ConfiguratorRegistry.get());
+        Mapping self = new Mapping();
+        self.put("unknown", "warn");
+        Mapping jenkins = new Mapping();
+        jenkins.put("noSuchAttribute", "true");
+        jenkins.put("numExecutors", "2");
+        Mapping entries = new Mapping();
+        entries.put("configuration-as-code", self);
+        entries.put("jenkins", jenkins);
+
+        new SchemaValidator(new DefaultConfiguratorRegistry()).validate(entries, context);
+    }
+
+    private static String error(String message, String path) {
+        for (String line : message.split("\n")) {
+            if (line.trim().startsWith(path + ": ")) {
+                return line.trim().substring(path.length() + 2);
+            }
+        }
+        throw new AssertionError("No error for " + path + " in " + message);
+    }
+}
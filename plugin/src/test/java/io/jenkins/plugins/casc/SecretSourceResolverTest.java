@@ -2,22 +2,43 @@ package io.jenkins.plugins.casc;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.endsWith;
 import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
+import hudson.ExtensionList;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
 import io.jenkins.plugins.casc.SecretSourceResolver.Base64Lookup;
 import io.jenkins.plugins.casc.SecretSourceResolver.FileBase64Lookup;
 import io.jenkins.plugins.casc.SecretSourceResolver.FileStringLookup;
 import io.jenkins.plugins.casc.SecretSourceResolver.SystemPropertyLookup;
+import io.jenkins.plugins.casc.impl.secrets.EnvSecretSource;
+import io.jenkins.plugins.casc.model.Mapping;
 import java.io.File;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import jenkins.model.Jenkins;
 import org.apache.commons.text.lookup.StringLookup;
 import org.apache.commons.text.lookup.StringLookupFactory;
 import org.junit.Before;
@@ -29,6 +50,7 @@ import org.junit.contrib.java.lang.system.EnvironmentVariables;
 import org.jvnet.hudson.test.Issue;
 import org.jvnet.hudson.test.JenkinsRule;
 import org.jvnet.hudson.test.LoggerRule;
+import org.jvnet.hudson.test.TestExtension;
 import org.jvnet.hudson.test.WithoutJenkins;
 
 public class SecretSourceResolverTest {
@@ -207,6 +229,67 @@ public class SecretSourceResolverTest {
         assertThat(resolve("http://${FOO}:${BAR}"), equalTo("http://www.foo.io:8080"));
     }
 
+    @Test
+    public void resolve_cachedWithinScope() {
+        environment.set("FOO", "hello");
+        try (SecretSourceResolver.CacheScope scope = context.getSecretSourceResolver().cacheSecrets()) {
+            assertThat(resolve("${FOO}"), equalTo("hello"));
+            environment.set("FOO", "world");
+            assertThat(resolve("${FOO}"), equalTo("hello"));
+            assertThat(resolve("${BAR:-default}"), equalTo("default"));
+            environment.set("BAR", "bar");
+            assertThat(resolve("${BAR:-default}"), equalTo("default"));
+        }
+        assertThat(resolve("${FOO}"), equalTo("world"));
+        assertThat(resolve("${BAR:-default}"), equalTo("bar"));
+    }
+
+    @Test
+    public void resolve_FileCachedWithinScope() throws Exception {
+        Path file = Files.createTempFile("casc", ".txt");
+        try (SecretSourceResolver.CacheScope scope = context.getSecretSourceResolver().cacheSecrets()) {
+            Files.write(file, "hello".getBytes(StandardCharsets.UTF_8));
+            FileTime lastModified = Files.getLastModifiedTime(file);
+            assertThat(resolve("${readFile:" + file + "}"), equalTo("hello"));
+            Files.write(file, "HELLO".getBytes(StandardCharsets.UTF_8));
+            Files.setLastModifiedTime(file, lastModified);
+            assertThat(resolve("${readFile:" + file + "}"), equalTo("hello"));
+            Files.write(file, "hello world".getBytes(StandardCharsets.UTF_8));
+            assertThat(resolve("${readFile:" + file + "}"), equalTo("hello world"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void resolve_recordsMetrics() {
+        environment.set("FOO", "hello");
+        SecretResolutionMetrics metrics = SecretResolutionMetrics.get();
+        long env = hits(metrics.getSources(), EnvSecretSource.class.getName());
+        long base64 = hits(metrics.getLookups(), "base64");
+        long unresolved = metrics.getUnresolved();
+        assertThat(resolve("${base64:${FOO}} ${UNKNOWN_VARIABLE}"), equalTo("aGVsbG8= "));
+        assertThat(hits(metrics.getSources(), EnvSecretSource.class.getName()), equalTo(env + 1));
+        assertThat(hits(metrics.getLookups(), "base64"), equalTo(base64 + 1));
+        assertThat(metrics.getUnresolved(), equalTo(unresolved + 1));
+    }
+
+    private static long hits(Collection<SecretResolutionMetrics.Stats> stats, String name) {
+        return stats.stream()
+                .filter(s -> s.getName().equals(name))
+                .mapToLong(SecretResolutionMetrics.Stats::getHits)
+                .sum();
+    }
+
+    @Test
+    public void collectSecretReferences() {
+        Set<String> keys = new HashSet<>();
+        context.getSecretSourceResolver()
+                .collectSecretReferences(
+                        "${FOO}:${BAR:-${BAZ}} ^${ESCAPED} ${base64:${QUX}} ${json:a:${JSON}} ${:-default}", keys);
+        assertThat(keys, containsInAnyOrder("FOO", "BAR", "BAZ", "QUX", "JSON"));
+    }
+
     /**
      * Ensures that prefixes in the secret ID which are not covered by the CasC protocol substitutors (e.g. base64:, file:)
      * are left untouched and not removed.
@@ -408,6 +491,18 @@ public class SecretSourceResolverTest {
         assertThat(output, equalTo("1"));
     }
 
+    @Test
+    public void resolve_JsonAfterNestedMembers() {
+        String input = "{ \"x\": { \"a\": [1, { \"b\": \"}\" }] }, \"a\": \"found\", \"c\": null }";
+        environment.set("FOO", input);
+        assertThat(resolve("${json:a:${FOO}}"), equalTo("found"));
+        assertThat(resolve("${json:c:${FOO}}"), equalTo(""));
+        try (SecretSourceResolver.CacheScope scope = context.getSecretSourceResolver().cacheSecrets()) {
+            assertThat(resolve("${json:a:${FOO}}"), equalTo("found"));
+            assertThat(resolve("${json:c:${FOO}}"), equalTo(""));
+        }
+    }
+
     /**
      * Test a mix of JSON and other lookups
      */
@@ -429,6 +524,128 @@ public class SecretSourceResolverTest {
         assertThat(output, equalTo(""));
     }
 
+    @Test
+    public void resolve_SourceMissingItsDeadlineIsInterrupted() throws Exception {
+        BlockingSecretSource.interrupted = new CountDownLatch(1);
+        final String property = BlockingSecretSource.class.getName() + ".timeout";
+        System.setProperty(property, "1");
+        try {
+            final ConfiguratorException e =
+                    assertThrows(ConfiguratorException.class, () -> resolve("${BLOCKING_SECRET}"));
+            assertThat(
+                    e.getMessage(),
+                    containsString(BlockingSecretSource.class.getName()
+                            + " did not reveal 'BLOCKING_SECRET' within 1 seconds"));
+            assertTrue(
+                    "reveal was not interrupted", BlockingSecretSource.interrupted.await(10, TimeUnit.SECONDS));
+            // the pool of the source is free again
+            assertThat(resolve("${SLOW_SECRET}"), equalTo("slow"));
+        } finally {
+            System.clearProperty(property);
+        }
+    }
+
+    @Test
+    public void prefetch_SourcesStillRunningPastTheDeadlineAreCancelled() throws Exception {
+        BlockingSecretSource.interrupted = new CountDownLatch(1);
+        final String property = BlockingSecretSource.class.getName() + ".timeout";
+        final Mapping config = new Mapping();
+        config.put("blocking", "${BLOCKING_SECRET}");
+        config.put("slow", "${SLOW_SECRET}");
+        System.setProperty(property, "1");
+        try (SecretSourceResolver.CacheScope secrets = context.getSecretSourceResolver().cacheSecrets()) {
+            final long start = System.nanoTime();
+            assertThrows(ConfiguratorException.class, () -> context.getSecretSourceResolver().prefetch(config));
+            assertTrue(
+                    "prefetch waited past the deadline",
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 5);
+            assertTrue(
+                    "prefetch was not cancelled", BlockingSecretSource.interrupted.await(10, TimeUnit.SECONDS));
+        } finally {
+            System.clearProperty(property);
+        }
+    }
+
+    @Test
+    public void resolve_SlowSourceWithinItsDeadline() {
+        final String property = BlockingSecretSource.class.getName() + ".timeout";
+        System.setProperty(property, "0");
+        try {
+            assertThat(resolve("${SLOW_SECRET}"), equalTo("slow"));
+        } finally {
+            System.clearProperty(property);
+        }
+        assertThat(resolve("${SLOW_SECRET}"), equalTo("slow"));
+    }
+
+    @Test
+    public void revealAsync_DefaultRunsRevealOnThePoolOfTheSource() throws Exception {
+        final SecretSource source = ExtensionList.lookupSingleton(BlockingSecretSource.class);
+        final String revealed;
+        try (ACLContext acl = ACL.as2(Jenkins.ANONYMOUS2)) {
+            revealed = source.revealAsync("WHO_AM_I").get(10, TimeUnit.SECONDS).orElse(null);
+        }
+        assertThat(revealed, startsWith("CasC SecretSource BlockingSecretSource"));
+        assertThat(revealed, endsWith(" as anonymous"));
+
+        final Map<String, String> all = source.revealAllAsync(new HashSet<>(Arrays.asList("SLOW_SECRET", "MISSING")))
+                .get(10, TimeUnit.SECONDS);
+        assertThat(all, equalTo(Collections.singletonMap("SLOW_SECRET", "slow")));
+    }
+
+    @Test
+    @WithoutJenkins
+    public void getTimeout_FromSourcePropertyThenGlobalSettingThenDefault() {
+        final SecretSource source = new BlockingSecretSource();
+        final String property = BlockingSecretSource.class.getName() + ".timeout";
+        try {
+            assertThat(source.getTimeout(), equalTo(Duration.ofMinutes(5)));
+            environment.set(SecretSource.CASC_SECRET_SOURCE_TIMEOUT_ENV, "30");
+            assertThat(source.getTimeout(), equalTo(Duration.ofSeconds(30)));
+            System.setProperty(SecretSource.CASC_SECRET_SOURCE_TIMEOUT_PROPERTY, "20");
+            assertThat(source.getTimeout(), equalTo(Duration.ofSeconds(20)));
+            System.setProperty(property, "10");
+            assertThat(source.getTimeout(), equalTo(Duration.ofSeconds(10)));
+            assertThat(new EnvSecretSource().getTimeout(), equalTo(Duration.ofSeconds(20)));
+            System.setProperty(property, "0");
+            assertTrue(source.getTimeout().isZero());
+        } finally {
+            System.clearProperty(SecretSource.CASC_SECRET_SOURCE_TIMEOUT_PROPERTY);
+            System.clearProperty(property);
+        }
+    }
+
+    @TestExtension
+    public static class BlockingSecretSource extends SecretSource {
+        static volatile CountDownLatch interrupted = new CountDownLatch(1);
+
+        @Override
+        public Optional<String> reveal(String secret) {
+            switch (secret) {
+                case "BLOCKING_SECRET":
+                    try {
+                        Thread.sleep(TimeUnit.MINUTES.toMillis(5));
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                        Thread.currentThread().interrupt();
+                    }
+                    return Optional.empty();
+                case "SLOW_SECRET":
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return Optional.of("slow");
+                case "WHO_AM_I":
+                    return Optional.of(Thread.currentThread().getName() + " as "
+                            + Jenkins.getAuthentication2().getName());
+                default:
+                    return Optional.empty();
+            }
+        }
+    }
+
     @Test
     @Issue("SECURITY-1446")
     @WithoutJenkins
@@ -0,0 +1,171 @@
+package io.jenkins.plugins.casc;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.yaml.snakeyaml.DumperOptions.FlowStyle.BLOCK;
+import static org.yaml.snakeyaml.DumperOptions.ScalarStyle.PLAIN;
+
+import io.jenkins.plugins.casc.model.CNode;
+import io.jenkins.plugins.casc.model.Mapping;
+import io.jenkins.plugins.casc.model.Scalar;
+import io.jenkins.plugins.casc.model.Sequence;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.Tag;
+
+public class YamlExportWriterTest {
+
+    @ClassRule
+    public static JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void sameOutputAsNodeSerialization() throws Exception {
+        Mapping nested = new Mapping();
+        nested.put("empty", "");
+        nested.put("emptyMapping", new Mapping());
+        Sequence emptyItems = new Sequence();
+        emptyItems.add(new Scalar(""));
+        emptyItems.add(new Mapping());
+        nested.put("emptyItems", emptyItems);
+        nested.put("number", new Scalar(42));
+        nested.put("flag", new Scalar(true));
+        nested.put("true", "quoted key");
+        nested.put("multiline", "first\nsecond");
+
+        Sequence items = new Sequence();
+        items.add(new Scalar("one"));
+        items.add(new Scalar(""));
+        Mapping item = new Mapping();
+        item.put("b", "2");
+        item.put("a", "1");
+        items.add(item);
+
+        Mapping emptyRoot = new Mapping();
+        emptyRoot.put("nothing", "");
+
+        Mapping root = new Mapping();
+        root.put("zeta", nested);
+        root.put("alpha", items);
+
+        assertExport(null, emptyRoot, root, new Scalar("value").sensitive(true));
+    }
+
+    @Test
+    public void pagedSequence() throws Exception {
+        AtomicInteger described = new AtomicInteger();
+        PagedSequence sequence = new PagedSequence(Arrays.asList(1, 2, 3, 4, 5), 2, eachValue(value -> {
+            described.incrementAndGet();
+            return value.equals(3) ? new Mapping() : new Scalar(value.toString());
+        }));
+
+        Iterator<CNode> iterator = sequence.iterator();
+        assertThat(iterator.next().asScalar().getValue(), equalTo("1"));
+        assertThat(described.get(), equalTo(2));
+        iterator.next();
+        iterator.next();
+        assertThat(described.get(), equalTo(4));
+
+        Mapping root = new Mapping();
+        root.put("items", sequence);
+        assertExport(root, sequence);
+    }
+
+    @Test
+    public void pagedSequenceIsDescribedOnceAsASequence() throws Exception {
+        AtomicInteger described = new AtomicInteger();
+        PagedSequence sequence = new PagedSequence(Arrays.asList(1, 2, 3), 2, eachValue(value -> {
+            described.incrementAndGet();
+            return new Scalar(value.toString());
+        }));
+
+        Sequence materialized = sequence.asSequence();
+        assertThat(materialized.size(), equalTo(3));
+        assertThat(sequence.asSequence(), sameInstance(materialized));
+        assertThat(sequence.clone().asSequence().get(2).asScalar().getValue(), equalTo("3"));
+        sequence.iterator().forEachRemaining(node -> {});
+        assertThat(described.get(), equalTo(3));
+    }
+
+    @Test
+    public void anchorsForRepeatedSubtrees() throws Exception {
+        Sequence agents = new Sequence();
+        for (int i = 0; i < 3; i++) {
+            Mapping launcher = new Mapping();
+            launcher.put("port", new Scalar(22));
+            launcher.put("unset", "");
+            Mapping agent = new Mapping();
+            agent.put("launcher", launcher);
+            agent.put("labels", "linux");
+            agents.add(agent);
+        }
+        Mapping root = new Mapping();
+        root.put("agents", agents);
+        root.put("single", "value");
+
+        StringWriter plain = new StringWriter();
+        YamlExportWriter writer = new YamlExportWriter(plain);
+        writer.start();
+        writer.writeRoot("root", root);
+        writer.end();
+
+        StringWriter anchored = new StringWriter();
+        writer = new YamlExportWriter(anchored, 1);
+        writer.start();
+        writer.writeRoot("root", root);
+        writer.end();
+
+        String yaml = anchored.toString();
+        assertThat(yaml, containsString("&id001"));
+        assertThat(yaml.indexOf("*id001"), equalTo(yaml.lastIndexOf("*id001")));
+        // a single alias is allowed, the third agent is written in full
+        assertThat(yaml.substring(yaml.indexOf("*id001")), containsString("port"));
+        assertThat(yaml, not(containsString("&id002")));
+        assertThat(new Yaml().load(yaml), equalTo(new Yaml().load(plain.toString())));
+    }
+
+    @Test
+    public void emptyExport() throws Exception {
+        assertExport();
+    }
+
+    private static void assertExport(CNode... roots) throws Exception {
+        StringWriter actual = new StringWriter();
+        YamlExportWriter writer = new YamlExportWriter(actual);
+        writer.start();
+        List<NodeTuple> tuples = new ArrayList<>();
+        for (int i = 0; i < roots.length; i++) {
+            String name = "root" + i;
+            writer.writeRoot(name, roots[i]);
+            Node node = ConfigurationAsCode.get().toYaml(roots[i]);
+            if (node != null) {
+                tuples.add(new NodeTuple(new ScalarNode(Tag.STR, name, null, null, PLAIN), node));
+            }
+        }
+        writer.end();
+
+        StringWriter expected = new StringWriter();
+        ConfigurationAsCode.serializeYamlNode(new MappingNode(Tag.MAP, tuples, BLOCK), expected);
+        assertThat(actual.toString(), equalTo(expected.toString()));
+    }
+
+    private static PagedSequence.Describer eachValue(Function<Object, CNode> describer) {
+        return values -> values.stream().map(describer).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,140 @@
+package io.jenkins.plugins.casc.impl.configurators;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import hudson.ExtensionPoint;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Descriptor;
+import io.jenkins.plugins.casc.ConfigurationContext;
+import io.jenkins.plugins.casc.ConfiguratorRegistry;
+import io.jenkins.plugins.casc.ObsoleteConfigurationMonitor;
+import io.jenkins.plugins.casc.model.Scalar;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+import org.jenkinsci.Symbol;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.LoggerRule;
+import org.jvnet.hudson.test.TestExtension;
+import org.kohsuke.stapler.DataBoundConstructor;
+
+public class HeteroDescribableConfiguratorTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Rule
+    public LoggerRule logging = new LoggerRule();
+
+    @Test
+    public void preferredSymbolWinsOverAlias() throws Exception {
+        final DescriptorSymbolIndex<Fruit> index = index();
+        assertThat(index.byPreferredSymbol("apple"), instanceOf(Apple.DescriptorImpl.class));
+        assertThat(index.byPreferredSymbol("APPLE"), instanceOf(Apple.DescriptorImpl.class));
+        assertThat(index.byObsoleteSymbol("apple"), nullValue());
+        assertThat(index.getImplementors().keySet(), containsInAnyOrder("apple", "pear"));
+
+        final HeteroDescribableConfigurator<Fruit> configurator = new HeteroDescribableConfigurator<>(Fruit.class);
+        final ConfigurationContext context = new ConfigurationContext(ConfiguratorRegistry.get());
+        assertThat(configurator.configure(new Scalar("apple"), context), instanceOf(Apple.class));
+        assertThat(configurator.configure(new Scalar("pear"), context), instanceOf(Pear.class));
+    }
+
+    @Test
+    public void obsoleteSymbolStillResolves() throws Exception {
+        final DescriptorSymbolIndex<Fruit> index = index();
+        assertThat(index.byPreferredSymbol("poire"), nullValue());
+        assertThat(index.byObsoleteSymbol("poire"), instanceOf(Pear.DescriptorImpl.class));
+
+        final HeteroDescribableConfigurator<Fruit> configurator = new HeteroDescribableConfigurator<>(Fruit.class);
+        final ConfigurationContext context = new ConfigurationContext(ConfiguratorRegistry.get());
+        assertThat(configurator.configure(new Scalar("poire"), context), instanceOf(Pear.class));
+        assertThat(
+                ObsoleteConfigurationMonitor.get().getErrors().stream()
+                        .map(error -> error.message)
+                        .collect(Collectors.toList()),
+                hasItem("'poire' is obsolete, please use 'pear'"));
+    }
+
+    @Test
+    public void duplicateSymbolIsReportedAndFirstOneWins() {
+        logging.record(DescriptorSymbolIndex.class, Level.WARNING).capture(10);
+
+        final DescriptorSymbolIndex<Fruit> index = index();
+        assertThat(index.getImplementors().keySet(), containsInAnyOrder("apple", "pear"));
+        assertThat(index.byPreferredSymbol("pear"), sameInstance(index.getImplementors().get("pear")));
+        assertThat(logging.getMessages(), hasItem(containsString("Found multiple implementations for symbol = pear")));
+        // the aliases of the dropped implementation are not indexed either
+        final boolean quinceWon = index.byPreferredSymbol("pear") instanceof Quince.DescriptorImpl;
+        assertThat(index.byObsoleteSymbol("coing") != null, is(quinceWon));
+        assertThat(index.byObsoleteSymbol("poire") != null, is(!quinceWon));
+    }
+
+    @Test
+    public void symbolOfDescriptorRegisteredAfterWarmUpIsResolved() throws Exception {
+        final HeteroDescribableConfigurator<Fruit> configurator = new HeteroDescribableConfigurator<>(Fruit.class);
+        final ConfigurationContext context = new ConfigurationContext(ConfiguratorRegistry.get());
+        assertThat(configurator.getImplementors().keySet(), containsInAnyOrder("apple", "pear"));
+        assertThat(configurator.configure(new Scalar("pear"), context), instanceOf(Pear.class));
+
+        // like a dynamically loaded plugin would, notifying the extension list listeners
+        j.jenkins.getDescriptorList(Fruit.class).add(new Plum.DescriptorImpl());
+
+        assertThat(configurator.getImplementors().keySet(), containsInAnyOrder("apple", "pear", "plum"));
+        assertThat(configurator.configure(new Scalar("plum"), context), instanceOf(Plum.class));
+        assertThat(configurator.configure(new Scalar("prune"), context), instanceOf(Plum.class));
+    }
+
+    private DescriptorSymbolIndex<Fruit> index() {
+        return DescriptorSymbolIndex.build(Fruit.class, j.jenkins.getDescriptorList(Fruit.class));
+    }
+
+    public abstract static class Fruit extends AbstractDescribableImpl<Fruit> implements ExtensionPoint {}
+
+    public static class Apple extends Fruit {
+
+        @DataBoundConstructor
+        public Apple() {}
+
+        @TestExtension
+        @Symbol("apple")
+        public static class DescriptorImpl extends Descriptor<Fruit> {}
+    }
+
+    public static class Pear extends Fruit {
+
+        @DataBoundConstructor
+        public Pear() {}
+
+        @TestExtension
+        @Symbol({"pear", "apple", "poire"})
+        public static class DescriptorImpl extends Descriptor<Fruit> {}
+    }
+
+    public static class Quince extends Fruit {
+
+        @DataBoundConstructor
+        public Quince() {}
+
+        @TestExtension("duplicateSymbolIsReportedAndFirstOneWins")
+        @Symbol({"pear", "coing"})
+        public static class DescriptorImpl extends Descriptor<Fruit> {}
+    }
+
+    public static class Plum extends Fruit {
+
+        @DataBoundConstructor
+        public Plum() {}
+
+        @Symbol({"plum", "prune"})
+        public static class DescriptorImpl extends Descriptor<Fruit> {}
+    }
+}
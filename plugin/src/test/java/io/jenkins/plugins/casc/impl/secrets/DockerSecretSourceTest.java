@@ -0,0 +1,85 @@
+package io.jenkins.plugins.casc.impl.secrets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.EnvironmentVariables;
+import org.junit.rules.TemporaryFolder;
+
+public class DockerSecretSourceTest {
+
+    @Rule
+    public final EnvironmentVariables environment = new EnvironmentVariables();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private DockerSecretSource source;
+
+    @Before
+    public void setUp() {
+        environment.set("SECRETS", folder.getRoot().getAbsolutePath());
+        source = new DockerSecretSource();
+    }
+
+    @Test
+    public void revealsSecretFiles() throws Exception {
+        write("password", "s3cr3t\n");
+        source.init();
+
+        assertThat(source.reveal("password"), equalTo(Optional.of("s3cr3t")));
+        assertThat(source.reveal("missing"), equalTo(Optional.empty()));
+    }
+
+    @Test
+    public void secretAddedOrChangedBetweenAppliesIsPickedUp() throws Exception {
+        write("password", "before");
+        source.init();
+        assertThat(source.reveal("password"), equalTo(Optional.of("before")));
+        assertThat(source.reveal("token"), equalTo(Optional.empty()));
+
+        write("password", "after");
+        write("token", "added");
+        source.init();
+
+        assertThat(source.reveal("password"), equalTo(Optional.of("after")));
+        assertThat(source.reveal("token"), equalTo(Optional.of("added")));
+    }
+
+    @Test
+    public void secretContentIsNotKept() throws Exception {
+        final File password = write("password", "first");
+        source.init();
+        assertThat(source.reveal("password"), equalTo(Optional.of("first")));
+
+        write("password", "second");
+        assertThat(source.reveal("password"), equalTo(Optional.of("second")));
+        assertThat(source.revealAsync("password").get(), equalTo(Optional.of("second")));
+
+        FileUtils.forceDelete(password);
+        assertThat(source.reveal("password"), equalTo(Optional.empty()));
+    }
+
+    @Test
+    public void secretsAddedDuringAnApplyWaitForTheNextOne() throws Exception {
+        source.init();
+        write("token", "added");
+
+        assertThat(source.reveal("token"), equalTo(Optional.empty()));
+        source.init();
+        assertThat(source.reveal("token"), equalTo(Optional.of("added")));
+    }
+
+    private File write(String name, String content) throws Exception {
+        final File file = new File(folder.getRoot(), name);
+        FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -0,0 +1,106 @@
+package io.jenkins.plugins.casc.impl.secrets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.EnvironmentVariables;
+import org.junit.rules.TemporaryFolder;
+
+public class PropertiesSecretSourceTest {
+
+    @Rule
+    public final EnvironmentVariables environment = new EnvironmentVariables();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final PropertiesSecretSource source = new PropertiesSecretSource();
+
+    private File file;
+
+    @Before
+    public void setUp() {
+        file = new File(folder.getRoot(), "secrets.properties");
+        environment.set("SECRETS_FILE", file.getAbsolutePath());
+    }
+
+    @Test
+    public void secretAddedOrChangedBetweenAppliesIsPickedUp() throws Exception {
+        write(file, "password=before\n");
+        source.init();
+        assertThat(source.reveal("password"), equalTo(Optional.of("before")));
+        assertThat(source.reveal("token"), equalTo(Optional.empty()));
+
+        write(file, "password=after\ntoken=added\n");
+        source.init();
+
+        assertThat(source.reveal("password"), equalTo(Optional.of("after")));
+        assertThat(source.reveal("token"), equalTo(Optional.of("added")));
+    }
+
+    @Test
+    public void unchangedFileIsNotReadAgain() throws Exception {
+        write(file, "password=first\n");
+        source.init();
+        final FileTime lastModified = Files.getLastModifiedTime(file.toPath());
+
+        // same size and modification time, so the new content is not even read
+        FileUtils.writeStringToFile(file, "password=other\n", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(file.toPath(), lastModified);
+        source.init();
+        assertThat(source.reveal("password"), equalTo(Optional.of("first")));
+
+        // touched with the same content
+        write(file, "password=first\n");
+        source.init();
+        assertThat(source.reveal("password"), equalTo(Optional.of("first")));
+    }
+
+    @Test
+    public void directoryFilesAreMergedInNameOrder() throws Exception {
+        final File directory = folder.newFolder("secrets");
+        environment.set("SECRETS_FILE", directory.getAbsolutePath());
+        write(new File(directory, "a.properties"), "password=a\nuser=a\n");
+        write(new File(directory, "b.properties"), "password=b\n");
+        write(new File(directory, "c.txt"), "password=c\ntoken=c\n");
+        source.init();
+
+        assertThat(source.reveal("password"), equalTo(Optional.of("b")));
+        assertThat(source.reveal("user"), equalTo(Optional.of("a")));
+        assertThat(source.reveal("token"), equalTo(Optional.empty()));
+
+        FileUtils.forceDelete(new File(directory, "b.properties"));
+        write(new File(directory, "d.properties"), "token=d\n");
+        source.init();
+
+        assertThat(source.reveal("password"), equalTo(Optional.of("a")));
+        assertThat(source.reveal("token"), equalTo(Optional.of("d")));
+    }
+
+    @Test
+    public void missingFileHasNoSecrets() {
+        source.init();
+        assertThat(source.reveal("password"), equalTo(Optional.empty()));
+    }
+
+    /**
+     * Writes a file with a modification time distinct from the previous one, whatever the file system resolution.
+     */
+    private static void write(File target, String content) throws Exception {
+        final long previous = target.exists() ? target.lastModified() : 0;
+        FileUtils.writeStringToFile(target, content, StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(
+                target.toPath(),
+                FileTime.fromMillis(Math.max(System.currentTimeMillis(), previous + TimeUnit.SECONDS.toMillis(2))));
+    }
+}
@@ -13,6 +13,9 @@ import org.openjdk.jmh.infra.Blackhole;
 @JmhBenchmark
 @BenchmarkMode(Mode.Throughput)
 public class SecretSourceResolverBenchmark {
+    private static final String LONG_TEXT = "Welcome to our build server. This Jenkins controller is managed as code, "
+            + "changes made through the UI are reverted on the next reload, see https://example.com/jenkins";
+
     public static class JenkinsState extends JmhBenchmarkState {
         private final EnvironmentVariables environmentVariables = new EnvironmentVariables();
         private ConfigurationContext context = null;
@@ -36,6 +39,11 @@ public class SecretSourceResolverBenchmark {
         blackhole.consume(state.context.getSecretSourceResolver().resolve("HELLO:WORLD"));
     }
 
+    @Benchmark
+    public void longTextButNoSecret(JenkinsState state, Blackhole blackhole) {
+        blackhole.consume(state.context.getSecretSourceResolver().resolve(LONG_TEXT));
+    }
+
     @Benchmark
     public void singleSecret(JenkinsState state, Blackhole blackhole) {
         blackhole.consume(state.context.getSecretSourceResolver().resolve("${FOO}"));
@@ -45,4 +53,19 @@ public class SecretSourceResolverBenchmark {
     public void multipleSecrets(JenkinsState state, Blackhole blackhole) {
         blackhole.consume(state.context.getSecretSourceResolver().resolve("${FOO}:${BAR}"));
     }
+
+    @Benchmark
+    public void secretWithDefault(JenkinsState state, Blackhole blackhole) {
+        blackhole.consume(state.context.getSecretSourceResolver().resolve("${MISSING:-default}"));
+    }
+
+    @Benchmark
+    public void nestedSecret(JenkinsState state, Blackhole blackhole) {
+        blackhole.consume(state.context.getSecretSourceResolver().resolve("${base64:${FOO}}"));
+    }
+
+    @Benchmark
+    public void escapedSecret(JenkinsState state, Blackhole blackhole) {
+        blackhole.consume(state.context.getSecretSourceResolver().resolve("^${FOO}"));
+    }
 }
@@ -0,0 +1,118 @@
+package io.jenkins.plugins.casc.yaml;
+
+import static io.jenkins.plugins.casc.yaml.BinaryFormat.KEY;
+import static io.jenkins.plugins.casc.yaml.BinaryFormat.KEY_REFERENCE;
+import static io.jenkins.plugins.casc.yaml.BinaryFormat.MAPPING_END;
+import static io.jenkins.plugins.casc.yaml.BinaryFormat.MAPPING_START;
+import static io.jenkins.plugins.casc.yaml.BinaryFormat.SCALAR;
+import static io.jenkins.plugins.casc.yaml.BinaryFormat.SEQUENCE_END;
+import static io.jenkins.plugins.casc.yaml.BinaryFormat.SEQUENCE_START;
+import static io.jenkins.plugins.casc.yaml.BinaryFormat.TAG_STRING;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import io.jenkins.plugins.casc.ConfigurationContext;
+import io.jenkins.plugins.casc.ConfiguratorException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import org.apache.commons.lang.StringUtils;
+import org.junit.Test;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+
+public class BinaryFormatTest {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final DataOutputStream out = new DataOutputStream(bytes);
+
+    @Test
+    public void readsKeysAndReferences() throws Exception {
+        BinaryFormat.writeHeader(out);
+        out.write(MAPPING_START);
+        out.write(KEY);
+        BinaryFormat.writeString(out, "systemMessage");
+        scalar("hello");
+        out.write(KEY_REFERENCE);
+        BinaryFormat.writeVarInt(out, 0);
+        scalar("again");
+        out.write(MAPPING_END);
+
+        MappingNode root = (MappingNode) read();
+        assertThat(root.getValue().size(), equalTo(2));
+        assertThat(((ScalarNode) root.getValue().get(1).getKeyNode()).getValue(), equalTo("systemMessage"));
+        assertThat(((ScalarNode) root.getValue().get(1).getValueNode()).getValue(), equalTo("again"));
+
+        // offsets are reported as lines
+        int first = root.getValue().get(0).getValueNode().getStartMark().getLine() + 1;
+        int second = root.getValue().get(1).getValueNode().getStartMark().getLine() + 1;
+        assertThat(first > 1, equalTo(true));
+        assertThat(second > first, equalTo(true));
+    }
+
+    @Test
+    public void rejectsDeepNesting() throws Exception {
+        BinaryFormat.writeHeader(out);
+        out.write(MAPPING_START);
+        out.write(KEY);
+        BinaryFormat.writeString(out, "deep");
+        for (int i = 0; i < 100_000; i++) {
+            out.write(SEQUENCE_START);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            out.write(SEQUENCE_END);
+        }
+        out.write(MAPPING_END);
+
+        ConfiguratorException e = assertThrows(ConfiguratorException.class, this::read);
+        assertThat(e.getMessage(), containsString("Nesting depth exceeds the limit"));
+    }
+
+    @Test
+    public void chargesKeyReferencesAgainstTheSizeLimit() throws Exception {
+        BinaryFormat.writeHeader(out);
+        out.write(MAPPING_START);
+        out.write(KEY);
+        BinaryFormat.writeString(out, StringUtils.repeat("k", 1000));
+        scalar("");
+        // a few bytes each, but as large as the key once read
+        for (int i = 0; i < 5_000; i++) {
+            out.write(KEY_REFERENCE);
+            BinaryFormat.writeVarInt(out, 0);
+            scalar("");
+        }
+        out.write(MAPPING_END);
+
+        ConfiguratorException e = assertThrows(ConfiguratorException.class, this::read);
+        assertThat(e.getMessage(), containsString("exceeds the limit of the document size"));
+    }
+
+    @Test
+    public void rejectsUnknownKeyReferences() throws Exception {
+        BinaryFormat.writeHeader(out);
+        out.write(MAPPING_START);
+        out.write(KEY_REFERENCE);
+        BinaryFormat.writeVarInt(out, 3);
+        scalar("value");
+        out.write(MAPPING_END);
+
+        ConfiguratorException e = assertThrows(ConfiguratorException.class, this::read);
+        assertThat(e.getMessage(), containsString("Unknown key reference"));
+    }
+
+    private void scalar(String value) throws IOException {
+        out.write(SCALAR);
+        out.write(TAG_STRING);
+        BinaryFormat.writeString(out, value);
+    }
+
+    private Node read() throws IOException {
+        InputStream in = new ByteArrayInputStream(bytes.toByteArray());
+        return BinaryFormat.read(YamlSource.of(in), in, new ConfigurationContext(null));
+    }
+}
@@ -1,22 +1,58 @@
 package io.jenkins.plugins.casc.yaml;
 
+import static java.util.Collections.singletonList;
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertThrows;
 
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.User;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
 import hudson.util.Secret;
+import io.jenkins.plugins.casc.BaseConfigurator;
 import io.jenkins.plugins.casc.ConfigurationAsCode;
 import io.jenkins.plugins.casc.ConfigurationContext;
+import io.jenkins.plugins.casc.ConfiguratorException;
 import io.jenkins.plugins.casc.ConfiguratorRegistry;
+import io.jenkins.plugins.casc.ExportBudget;
+import io.jenkins.plugins.casc.ExportCache;
+import io.jenkins.plugins.casc.ExportFormat;
+import io.jenkins.plugins.casc.RootElementConfigurator;
 import io.jenkins.plugins.casc.impl.configurators.DataBoundConfigurator;
 import io.jenkins.plugins.casc.model.CNode;
+import io.jenkins.plugins.casc.model.Mapping;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.StringWriter;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import jenkins.model.Jenkins;
+import net.sf.json.JSONObject;
+import org.htmlunit.HttpMethod;
+import org.htmlunit.WebRequest;
+import org.htmlunit.WebResponse;
 import org.junit.Rule;
 import org.junit.Test;
 import org.jvnet.hudson.test.Issue;
 import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.springframework.security.core.Authentication;
 import org.yaml.snakeyaml.error.YAMLException;
 import org.yaml.snakeyaml.nodes.Node;
 
@@ -52,6 +88,346 @@ public class ExportTest {
         assertThat(res, not(containsString("test")));
     }
 
+    @Test
+    public void shouldReuseExportUntilConfigurationChanges() throws Exception {
+        ConfigurationAsCode casc = ConfigurationAsCode.get();
+        ExportCache.Export export = casc.getCachedExport();
+        assertThat(casc.getCachedExport(), sameInstance(export));
+        assertThat(export.matches(export.getETag()), is(true));
+
+        j.jenkins.setSystemMessage("changed");
+        ExportCache.Export changed = casc.getCachedExport();
+        assertThat(changed.toString(), containsString("changed"));
+        assertThat(changed.getETag(), not(export.getETag()));
+        assertThat(changed.matches(export.getETag()), is(false));
+    }
+
+    @Test
+    public void shouldStreamExportAndServeItAgainFromMemory() throws Exception {
+        j.jenkins.setSystemMessage("streamed");
+        JenkinsRule.WebClient wc = j.createWebClient();
+
+        WebResponse streamed = postExport(wc, null);
+        assertThat(streamed.getStatusCode(), is(200));
+        assertThat(streamed.getContentAsString(), containsString("streamed"));
+        assertThat(streamed.getResponseHeaderValue("ETag"), nullValue());
+
+        WebResponse kept = postExport(wc, null);
+        String etag = kept.getResponseHeaderValue("ETag");
+        assertThat(etag, startsWith("\""));
+        assertThat(kept.getContentAsString(), is(streamed.getContentAsString()));
+
+        assertThat(postExport(wc, etag).getStatusCode(), is(304));
+        j.jenkins.setSystemMessage("changed");
+        assertThat(postExport(wc, etag).getStatusCode(), is(200));
+    }
+
+    private WebResponse postExport(JenkinsRule.WebClient wc, String etag) throws Exception {
+        WebRequest request = new WebRequest(new URL(j.getURL(), "configuration-as-code/export"), HttpMethod.POST);
+        if (etag != null) {
+            request.setAdditionalHeader("If-None-Match", etag);
+        }
+        return wc.loadWebResponse(wc.addCrumb(request));
+    }
+
+    @Test
+    public void shouldExportSubtreeByPath() throws Exception {
+        ConfigurationAsCode casc = ConfigurationAsCode.get();
+        j.jenkins.setSystemMessage("hello");
+
+        String message = export(casc, "jenkins.systemMessage");
+        assertThat(message, is("jenkins:\n  systemMessage: \"hello\"\n"));
+
+        String location = export(casc, "unclassified.location");
+        assertThat(location, containsString("location:"));
+        assertThat(location, containsString("adminAddress:"));
+        assertThat(location, not(containsString("systemMessage")));
+
+        assertThat(export(casc, "security"), startsWith("security:"));
+        assertThrows(ConfiguratorException.class, () -> export(casc, "jenkins.unknown"));
+        assertThrows(ConfiguratorException.class, () -> export(casc, "unknown"));
+    }
+
+    @Test
+    public void shouldExportJsonAndBinary() throws Exception {
+        ConfigurationAsCode casc = ConfigurationAsCode.get();
+        j.jenkins.setSystemMessage("hello \"json\"\n");
+        ConfigurationContext context = new ConfigurationContext(ConfiguratorRegistry.get());
+
+        JSONObject json = JSONObject.fromObject(new String(export(casc, ExportFormat.JSON), StandardCharsets.UTF_8));
+        assertThat(json.getJSONObject("jenkins").getString("systemMessage"), is("hello \"json\"\n"));
+
+        Mapping fromYaml = YamlUtils.loadFrom(
+                singletonList(YamlSource.of(new ByteArrayInputStream(export(casc, ExportFormat.YAML)))), context);
+        Mapping fromBinary = YamlUtils.loadFrom(
+                singletonList(YamlSource.of(new ByteArrayInputStream(export(casc, ExportFormat.BINARY)))), context);
+        assertThat(toYamlString(casc, fromBinary), is(toYamlString(casc, fromYaml)));
+    }
+
+    private static byte[] export(ConfigurationAsCode casc, ExportFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        casc.export(out, null, format);
+        return out.toByteArray();
+    }
+
+    private static String toYamlString(ConfigurationAsCode casc, Mapping mapping) throws IOException {
+        StringWriter writer = new StringWriter();
+        ConfigurationAsCode.serializeYamlNode(casc.toYaml(mapping), writer);
+        return writer.toString();
+    }
+
+    private static String export(ConfigurationAsCode casc, String path) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        casc.export(out, path);
+        return out.toString(StandardCharsets.UTF_8.name());
+    }
+
+    @Test
+    public void shouldExportRootElementsInParallel() throws Exception {
+        ConfigurationAsCode casc = ConfigurationAsCode.get();
+        j.jenkins.setSecurityRealm(j.createDummySecurityRealm());
+        j.jenkins.setSystemMessage("parallel");
+        ExportProbeConfigurator.threads.clear();
+        Authentication alice = User.getById("alice", true).impersonate2();
+
+        String sequential;
+        String parallel;
+        try (ACLContext acl = ACL.as2(alice)) {
+            sequential = new String(export(casc, ExportFormat.YAML), StandardCharsets.UTF_8);
+            System.setProperty(ConfigurationContext.CASC_EXPORT_THREADS_PROPERTY, "4");
+            try {
+                parallel = new String(export(casc, ExportFormat.YAML), StandardCharsets.UTF_8);
+            } finally {
+                System.clearProperty(ConfigurationContext.CASC_EXPORT_THREADS_PROPERTY);
+            }
+        }
+
+        assertThat(parallel, is(sequential));
+        assertThat(parallel, containsString("exportProbe:\n  user: \"alice\""));
+        assertThat(ExportProbeConfigurator.threads.size(), is(2));
+        assertThat(ExportProbeConfigurator.threads.get(0), not(startsWith("CasC export")));
+        assertThat(ExportProbeConfigurator.threads.get(1), startsWith("CasC export"));
+
+        // written in registration order, although the probe completes last
+        List<String> written = new ArrayList<>();
+        for (String line : parallel.split("\n")) {
+            if (!line.isEmpty() && !Character.isWhitespace(line.charAt(0))) {
+                written.add(line.substring(0, line.indexOf(':')));
+            }
+        }
+        List<String> registered = new ArrayList<>();
+        for (RootElementConfigurator<?> root : RootElementConfigurator.all()) {
+            if (written.contains(root.getName())) {
+                registered.add(root.getName());
+            }
+        }
+        assertThat(written, is(registered));
+        assertThat(written.contains("exportProbe"), is(true));
+    }
+
+    /**
+     * Root element describing who it is described for, and recording which threads it is described on.
+     */
+    @TestExtension("shouldExportRootElementsInParallel")
+    public static class ExportProbeConfigurator extends BaseConfigurator<ExportProbe>
+            implements RootElementConfigurator<ExportProbe> {
+
+        static final List<String> threads = Collections.synchronizedList(new ArrayList<>());
+
+        @NonNull
+        @Override
+        public String getName() {
+            return "exportProbe";
+        }
+
+        @Override
+        public Class<ExportProbe> getTarget() {
+            return ExportProbe.class;
+        }
+
+        @Override
+        public ExportProbe getTargetComponent(ConfigurationContext context) {
+            return new ExportProbe();
+        }
+
+        @Override
+        protected ExportProbe instance(Mapping mapping, ConfigurationContext context) {
+            return new ExportProbe();
+        }
+
+        @Override
+        public CNode describe(ExportProbe instance, ConfigurationContext context) throws Exception {
+            threads.add(Thread.currentThread().getName());
+            // let the other root elements complete first
+            Thread.sleep(500);
+            Mapping mapping = new Mapping();
+            mapping.put("user", Jenkins.getAuthentication2().getName());
+            return mapping;
+        }
+    }
+
+    public static class ExportProbe {}
+
+    @Test
+    public void shouldSkipAttributesOverTheirTimeBudget() throws Exception {
+        ConfigurationContext context;
+        System.setProperty(ConfigurationContext.CASC_EXPORT_ATTRIBUTE_TIMEOUT_PROPERTY, "200");
+        System.setProperty(ConfigurationContext.CASC_EXPORT_PAGE_SIZE_PROPERTY, "2");
+        try {
+            context = new ConfigurationContext(ConfiguratorRegistry.get());
+        } finally {
+            System.clearProperty(ConfigurationContext.CASC_EXPORT_ATTRIBUTE_TIMEOUT_PROPERTY);
+            System.clearProperty(ConfigurationContext.CASC_EXPORT_PAGE_SIZE_PROPERTY);
+        }
+
+        SlowHolder holder = new SlowHolder("holder");
+        holder.setSlow(new SlowDescription());
+        holder.setSlowValues(Arrays.asList(new SlowDescription(), new SlowDescription(), new SlowDescription()));
+        Mapping mapping = new DataBoundConfigurator<>(SlowHolder.class)
+                .describe(holder, context)
+                .asMapping();
+        assertThat(mapping.getScalarValue("name"), is("holder"));
+        assertThat(mapping.getScalarValue("slow"), startsWith("EXPORT TIMED OUT"));
+        // the getter is slow when compared with the default value too
+        assertThat(mapping.getScalarValue("slowName"), startsWith("EXPORT TIMED OUT"));
+
+        ExportBudget.Timing timing = context.getExportBudget().getSlowAttributes().get(0);
+        assertThat(timing.isTimedOut(), is(true));
+        List<String> timedOut = new ArrayList<>();
+        for (ExportBudget.Timing t : context.getExportBudget().getSlowAttributes()) {
+            timedOut.add(t.getName());
+        }
+        assertThat(timedOut, hasItems(SlowHolder.class.getName() + "#slow", SlowHolder.class.getName() + "#slowName"));
+
+        // values are described a page at a time while being written, each page within the limit
+        List<String> values = new ArrayList<>();
+        for (CNode value : mapping.get("slowValues").asSequence()) {
+            values.add(value.asScalar().getValue());
+        }
+        assertThat(values.size(), is(2));
+        assertThat(values.get(0), startsWith("EXPORT TIMED OUT"));
+        assertThat(values.get(1), startsWith("EXPORT TIMED OUT"));
+    }
+
+    @Test
+    public void shouldSkipAttributesStillRunningFromAPreviousExport() throws Exception {
+        ConfigurationContext context = attributeTimeout("200");
+        DataBoundConfigurator<StuckHolder> configurator = new DataBoundConfigurator<>(StuckHolder.class);
+        StuckHolder holder = new StuckHolder();
+        holder.setStuck("released");
+        StuckHolder other = new StuckHolder();
+        other.setStuck("other");
+        try {
+            assertThat(
+                    configurator.describe(holder, context).asMapping().getScalarValue("stuck"),
+                    containsString("took more than 200 ms"));
+            // the thread ignores the interruption, so the attribute isn't described again until it is done
+            long start = System.nanoTime();
+            assertThat(
+                    configurator.describe(holder, context).asMapping().getScalarValue("stuck"),
+                    containsString("still running since earlier in this export"));
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 200, is(true));
+            assertThat(
+                    configurator.describe(holder, attributeTimeout("200")).asMapping().getScalarValue("stuck"),
+                    containsString("still running since a previous export"));
+            // the same attribute of another object is still described
+            assertThat(
+                    configurator.describe(other, context).asMapping().getScalarValue("stuck"),
+                    containsString("took more than 200 ms"));
+        } finally {
+            StuckHolder.RELEASE.countDown();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        String stuck;
+        do {
+            Thread.sleep(50);
+            stuck = configurator.describe(holder, context).asMapping().getScalarValue("stuck");
+        } while (!stuck.equals("released") && System.nanoTime() < deadline);
+        assertThat(stuck, is("released"));
+    }
+
+    private static ConfigurationContext attributeTimeout(String millis) {
+        System.setProperty(ConfigurationContext.CASC_EXPORT_ATTRIBUTE_TIMEOUT_PROPERTY, millis);
+        try {
+            return new ConfigurationContext(ConfiguratorRegistry.get());
+        } finally {
+            System.clearProperty(ConfigurationContext.CASC_EXPORT_ATTRIBUTE_TIMEOUT_PROPERTY);
+        }
+    }
+
+    @Test
+    public void shouldCompareWithDefaultsOfEachInstance() throws Exception {
+        ConfigurationContext context = new ConfigurationContext(ConfiguratorRegistry.get());
+        DataBoundConfigurator<DataBoundDefaults> independent = new DataBoundConfigurator<>(DataBoundDefaults.class);
+        DataBoundConfigurator<DataBoundDependentDefaults> dependent =
+                new DataBoundConfigurator<>(DataBoundDependentDefaults.class);
+        for (int i = 0; i < 5; i++) {
+            DataBoundDefaults defaults = new DataBoundDefaults("name" + i);
+            assertThat(hasDescription(independent, defaults, context), is(false));
+            defaults.setDescription("custom" + i);
+            assertThat(hasDescription(independent, defaults, context), is(true));
+
+            DataBoundDependentDefaults dependentDefaults = new DataBoundDependentDefaults("name" + i);
+            assertThat(hasDescription(dependent, dependentDefaults, context), is(false));
+            dependentDefaults.setDescription("name");
+            assertThat(hasDescription(dependent, dependentDefaults, context), is(true));
+        }
+    }
+
+    @Test
+    public void shouldFollowDefaultsChangingBetweenExports() throws Exception {
+        ConfigurationContext context = new ConfigurationContext(ConfiguratorRegistry.get());
+        DataBoundConfigurator<DataBoundChangingDefaults> configurator =
+                new DataBoundConfigurator<>(DataBoundChangingDefaults.class);
+        DataBoundChangingDefaults object = new DataBoundChangingDefaults("name");
+        try {
+            for (int i = 0; i < 3; i++) {
+                assertThat(hasDescription(configurator, object, context), is(false));
+            }
+            DataBoundChangingDefaults.defaultDescription = "changed";
+            assertThat(hasDescription(configurator, object, context), is(true));
+        } finally {
+            DataBoundChangingDefaults.defaultDescription = "default";
+        }
+    }
+
+    @Test
+    public void shouldCompareWithSnapshotOfConstantDefaults() throws Exception {
+        String property = DataBoundConfigurator.class.getName() + ".constantDefaults";
+        System.setProperty(
+                property, DataBoundDefaults.class.getName() + ", " + DataBoundChangingDefaults.class.getName());
+        DataBoundConfigurator.invalidateDefaults();
+        try {
+            ConfigurationContext context = new ConfigurationContext(ConfiguratorRegistry.get());
+            DataBoundConfigurator<DataBoundDefaults> constant = new DataBoundConfigurator<>(DataBoundDefaults.class);
+            for (int i = 0; i < 5; i++) {
+                DataBoundDefaults defaults = new DataBoundDefaults("name" + i);
+                assertThat(hasDescription(constant, defaults, context), is(false));
+                defaults.setDescription("custom" + i);
+                assertThat(hasDescription(constant, defaults, context), is(true));
+            }
+
+            // snapshots are taken again once invalidated
+            DataBoundConfigurator<DataBoundChangingDefaults> changing =
+                    new DataBoundConfigurator<>(DataBoundChangingDefaults.class);
+            DataBoundChangingDefaults object = new DataBoundChangingDefaults("name");
+            assertThat(hasDescription(changing, object, context), is(false));
+            DataBoundChangingDefaults.defaultDescription = "changed";
+            DataBoundConfigurator.invalidateDefaults();
+            assertThat(hasDescription(changing, object, context), is(true));
+        } finally {
+            DataBoundChangingDefaults.defaultDescription = "default";
+            System.clearProperty(property);
+            DataBoundConfigurator.invalidateDefaults();
+        }
+    }
+
+    private static <T> boolean hasDescription(
+            DataBoundConfigurator<T> configurator, T object, ConfigurationContext context) throws Exception {
+        return configurator.describe(object, context).asMapping().containsKey("description");
+    }
+
     public <T> String export(DataBoundConfigurator<T> configurator, T object) throws Exception {
         ConfigurationAsCode casc = ConfigurationAsCode.get();
         ConfiguratorRegistry registry = ConfiguratorRegistry.get();
@@ -96,6 +472,164 @@ public class ExportTest {
         }
     }
 
+    public static class DataBoundDefaults {
+
+        private final String name;
+        private String description = "default";
+
+        @DataBoundConstructor
+        public DataBoundDefaults(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        @DataBoundSetter
+        public void setDescription(String description) {
+            this.description = description;
+        }
+    }
+
+    public static class DataBoundChangingDefaults {
+
+        static volatile String defaultDescription = "default";
+
+        private final String name;
+        private String description = defaultDescription;
+
+        @DataBoundConstructor
+        public DataBoundChangingDefaults(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        @DataBoundSetter
+        public void setDescription(String description) {
+            this.description = description;
+        }
+    }
+
+    public static class DataBoundDependentDefaults {
+
+        private final String name;
+        private String description;
+
+        @DataBoundConstructor
+        public DataBoundDependentDefaults(String name) {
+            this.name = name;
+            this.description = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        @DataBoundSetter
+        public void setDescription(String description) {
+            this.description = description;
+        }
+    }
+
+    public static class SlowHolder {
+
+        private final String name;
+        private SlowDescription slow;
+        private List<SlowDescription> slowValues;
+
+        @DataBoundConstructor
+        public SlowHolder(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public SlowDescription getSlow() {
+            return slow;
+        }
+
+        @DataBoundSetter
+        public void setSlow(SlowDescription slow) {
+            this.slow = slow;
+        }
+
+        public String getSlowName() throws InterruptedException {
+            Thread.sleep(10_000);
+            return name;
+        }
+
+        @DataBoundSetter
+        public void setSlowName(String slowName) {}
+
+        public List<SlowDescription> getSlowValues() {
+            return slowValues;
+        }
+
+        @DataBoundSetter
+        public void setSlowValues(List<SlowDescription> slowValues) {
+            this.slowValues = slowValues;
+        }
+    }
+
+    public static class StuckHolder {
+
+        private static final CountDownLatch RELEASE = new CountDownLatch(1);
+
+        private String stuck;
+
+        @DataBoundConstructor
+        public StuckHolder() {}
+
+        public String getStuck() {
+            boolean released = false;
+            while (!released) {
+                try {
+                    released = RELEASE.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    // ignored, like a blocking call which can't be interrupted
+                }
+            }
+            return stuck;
+        }
+
+        @DataBoundSetter
+        public void setStuck(String stuck) {
+            this.stuck = stuck;
+        }
+    }
+
+    public static class SlowDescription {
+
+        @DataBoundConstructor
+        public SlowDescription() {}
+
+        public String getDescription() throws InterruptedException {
+            Thread.sleep(10_000);
+            return "slow";
+        }
+
+        @DataBoundSetter
+        public void setDescription(String description) {}
+    }
+
     /**
      * Example of a safe persistency to the disk when JCasC cannot discover the field.
      */
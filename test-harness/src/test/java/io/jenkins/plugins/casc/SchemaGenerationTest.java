@@ -5,8 +5,13 @@ import static io.jenkins.plugins.casc.misc.Util.validateSchema;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 
 import io.jenkins.plugins.casc.misc.JenkinsConfiguredWithCodeRule;
+import org.json.JSONObject;
 import org.junit.Rule;
 import org.junit.Test;
 
@@ -56,6 +61,23 @@ public class SchemaGenerationTest {
                 contains("#/tool: extraneous key [acceptLicense] is not permitted"));
     }
 
+    @Test
+    public void streamedSchemaMatchesGeneratedOne() throws Exception {
+        JSONObject streamed = new JSONObject(SchemaGeneration.writeJSONSchema());
+        assertThat(streamed.similar(SchemaGeneration.generateSchema()), is(true));
+    }
+
+    @Test
+    public void schemaIsCachedUntilExtensionsChange() throws Exception {
+        ExportCache.Export schema = SchemaCache.get();
+        assertThat(SchemaCache.get(), sameInstance(schema));
+
+        SchemaCache.invalidate();
+        ExportCache.Export regenerated = SchemaCache.get();
+        assertThat(regenerated, not(sameInstance(schema)));
+        assertThat(regenerated.getETag(), equalTo(schema.getETag()));
+    }
+
     //    For testing manually
     //    @Test
     //    public void writeSchema() throws Exception {